@@ -0,0 +1,51 @@
+package com.data.handler.patientdata.benchmark;
+
+import com.data.handler.patientdata.Gender;
+import com.data.handler.patientdata.model.GenderConverter;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Conversions of {@link GenderConverter} in both directions. Run with the gc profiler of the benchmark profile, a
+ * gc.alloc.rate.norm of 0 B/op shows that a conversion does not allocate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GenderConverterBenchmark {
+
+  private final GenderConverter converter = new GenderConverter();
+
+  @Param({"MALE", "female", "OTHER"})
+  private String databaseValue;
+
+  private Gender gender;
+
+  @Setup
+  public void setup() {
+    gender = Gender.fromGender(databaseValue);
+  }
+
+  @Benchmark
+  public Gender convertToEntityAttribute() {
+    return converter.convertToEntityAttribute(databaseValue);
+  }
+
+  @Benchmark
+  public String convertToDatabaseColumn() {
+    return converter.convertToDatabaseColumn(gender);
+  }
+}
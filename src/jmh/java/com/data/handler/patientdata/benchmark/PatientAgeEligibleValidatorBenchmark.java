@@ -0,0 +1,42 @@
+package com.data.handler.patientdata.benchmark;
+
+import com.data.handler.patientdata.constraints.PatientAgeEligibleValidator;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Age validation as run for every created or imported patient.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PatientAgeEligibleValidatorBenchmark {
+
+  private final PatientAgeEligibleValidator validator = new PatientAgeEligibleValidator();
+
+  private final LocalDate eligibleBirthDay = LocalDate.now().minusYears(30);
+
+  private final LocalDate nonEligibleBirthDay = LocalDate.now().minusYears(10);
+
+  @Benchmark
+  public boolean isValidEligible() {
+    return validator.isValid(eligibleBirthDay, null);
+  }
+
+  @Benchmark
+  public boolean isValidNonEligible() {
+    return validator.isValid(nonEligibleBirthDay, null);
+  }
+}
@@ -0,0 +1,77 @@
+package com.data.handler.patientdata.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed loop load driver against a running application: every client sends its next request as soon as the previous one
+ * is answered, for a fixed duration. Run it once against the default thread pool and once with
+ * app.threads.virtual.enabled=true to compare the throughput and latencies of both modes.
+ * <p>
+ * Arguments: url, number of concurrent clients, duration in seconds.
+ */
+public class PatientLoadDriver {
+
+  public static void main(String[] args) throws Exception {
+    URI uri = URI.create(args[0]);
+    int clients = Integer.parseInt(args[1]);
+    long durationNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(args[2]));
+
+    HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+    HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(60)).GET().build();
+    AtomicLong errors = new AtomicLong();
+    ExecutorService executor = Executors.newFixedThreadPool(clients);
+    long startedAt = System.nanoTime();
+    long endAt = startedAt + durationNanos;
+
+    List<Future<List<Long>>> results = new ArrayList<>(clients);
+    for (int i = 0; i < clients; i++) {
+      results.add(executor.submit(() -> {
+        List<Long> latencies = new ArrayList<>();
+        for (long sentAt = System.nanoTime(); sentAt < endAt; sentAt = System.nanoTime()) {
+          try {
+            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() >= 400) {
+              errors.incrementAndGet();
+            }
+          } catch (Exception ex) {
+            errors.incrementAndGet();
+          }
+          latencies.add(System.nanoTime() - sentAt);
+        }
+        return latencies;
+      }));
+    }
+
+    List<Long> latencies = new ArrayList<>();
+    for (Future<List<Long>> result : results) {
+      latencies.addAll(result.get());
+    }
+    double elapsedSeconds = (System.nanoTime() - startedAt) / 1e9;
+    executor.shutdown();
+
+    Collections.sort(latencies);
+    System.out.printf("url=%s clients=%d requests=%d errors=%d throughput=%.1f req/s p50=%.1f ms p95=%.1f ms p99=%.1f ms%n",
+        uri, clients, latencies.size(), errors.get(), latencies.size() / elapsedSeconds,
+        percentileMillis(latencies, 0.50), percentileMillis(latencies, 0.95), percentileMillis(latencies, 0.99));
+  }
+
+  private static double percentileMillis(List<Long> sortedLatencies, double percentile) {
+    if (sortedLatencies.isEmpty()) {
+      return 0;
+    }
+    int index = (int) Math.ceil(percentile * sortedLatencies.size()) - 1;
+    return sortedLatencies.get(Math.max(0, index)) / 1e6;
+  }
+}
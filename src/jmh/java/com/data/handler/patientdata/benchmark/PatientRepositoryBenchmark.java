@@ -0,0 +1,115 @@
+package com.data.handler.patientdata.benchmark;
+
+import com.data.handler.patientdata.Gender;
+import com.data.handler.patientdata.PatientDataApplication;
+import com.data.handler.patientdata.model.Patient;
+import com.data.handler.patientdata.model.PatientView;
+import com.data.handler.patientdata.repository.PatientRepository;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+
+/**
+ * Repository queries against an in memory H2 database seeded with patients, run in the application context without the web
+ * layer, the scheduled purge and the sql logging.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PatientRepositoryBenchmark {
+
+  private static final int SEED_CHUNK_SIZE = 1000;
+
+  @Param({"10000"})
+  private int patients;
+
+  private ConfigurableApplicationContext context;
+
+  private PatientRepository patientRepository;
+
+  private PatientView middlePatient;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    context = new SpringApplicationBuilder(PatientDataApplication.class)
+        .web(WebApplicationType.NONE)
+        .properties(
+            "spring.datasource.url=jdbc:h2:mem:benchmark",
+            "spring.jpa.show-sql=false",
+            "app.config.schedule.time=-",
+            "logging.level.root=WARN")
+        .run();
+    patientRepository = context.getBean(PatientRepository.class);
+
+    LocalDate today = LocalDate.now();
+    for (int chunk = 0; chunk < patients; chunk += SEED_CHUNK_SIZE) {
+      patientRepository.saveAll(IntStream.range(chunk, Math.min(chunk + SEED_CHUNK_SIZE, patients))
+          .mapToObj(i -> Patient.builder()
+              .firstName("First" + i % 500).lastName("Last" + i).gender(Gender.values()[i % 3])
+              .birthDay(today.minusYears(20).minusDays(i % 3650))
+              .build())
+          .collect(Collectors.toList()));
+    }
+    middlePatient = patientRepository.findAllByOrderByLastNameAscIdAsc(PageRequest.of(patients / 2, 1)).get(0);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public Optional<List<Patient>> findAllByOrderByLastNameAsc() {
+    return patientRepository.findAllByOrderByLastNameAsc();
+  }
+
+  @Benchmark
+  public Optional<List<PatientView>> findAllViewsByOrderByLastNameAsc() {
+    return patientRepository.findAllViewsByOrderByLastNameAsc();
+  }
+
+  @Benchmark
+  public Optional<List<Patient>> findAllByGenderOrderByLastNameAsc() {
+    return patientRepository.findAllByGenderOrderByLastNameAsc(Gender.FEMALE);
+  }
+
+  @Benchmark
+  public Optional<List<Patient>> findAllByFirstNameAndLastNameOrderByLastNameAsc() {
+    return patientRepository.findAllByFirstNameAndLastNameOrderByLastNameAsc(middlePatient.getFirstName(),
+        middlePatient.getLastName());
+  }
+
+  @Benchmark
+  public Optional<Patient> findById() {
+    return patientRepository.findById(middlePatient.getId());
+  }
+
+  @Benchmark
+  public List<PatientView> findPageAfterMiddlePatient() {
+    return patientRepository.findAllAfterOrderByLastNameAscIdAsc(middlePatient.getLastName(), middlePatient.getId(),
+        PageRequest.of(0, 100));
+  }
+}
@@ -0,0 +1,113 @@
+package com.data.handler.patientdata.benchmark;
+
+import com.data.handler.patientdata.Gender;
+import com.data.handler.patientdata.model.Patient;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Jackson serialization of patient lists as written by the list endpoints in each negotiable format, with the mapper
+ * configured like the application one. The output is discarded so only the serialization itself is measured, plain or
+ * gzip compressed like by the server. The payload size of every format is printed by the setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PatientSerializationBenchmark {
+
+  @Param({"1000", "100000"})
+  private int size;
+
+  @Param({"json", "cbor", "smile"})
+  private String format;
+
+  private List<Patient> patients;
+
+  private ObjectWriter writer;
+
+  @Setup
+  public void setup() {
+    writer = builder(format)
+        .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        .build()
+        .writerFor(new TypeReference<List<Patient>>() {
+        });
+    LocalDate today = LocalDate.now();
+    patients = IntStream.range(0, size)
+        .mapToObj(i -> Patient.builder()
+            .id((long) i).firstName("First" + i).lastName("Last" + i).gender(Gender.values()[i % 3])
+            .birthDay(today.minusYears(20).minusDays(i % 3650)).createdOn(today.minusDays(i % 365))
+            .build())
+        .collect(Collectors.toList());
+    byte[] payload = serialize(patients);
+    System.out.printf("%n%s payload of %s patients: %s bytes, %s bytes gzip compressed%n",
+        format, size, payload.length, gzip(payload).length);
+  }
+
+  @Benchmark
+  public void serializeList() throws IOException {
+    writer.writeValue(OutputStream.nullOutputStream(), patients);
+  }
+
+  @Benchmark
+  public void serializeListGzip() throws IOException {
+    try (OutputStream out = new GZIPOutputStream(OutputStream.nullOutputStream())) {
+      writer.writeValue(out, patients);
+    }
+  }
+
+  private static Jackson2ObjectMapperBuilder builder(String format) {
+    switch (format) {
+      case "cbor":
+        return Jackson2ObjectMapperBuilder.cbor();
+      case "smile":
+        return Jackson2ObjectMapperBuilder.smile();
+      default:
+        return Jackson2ObjectMapperBuilder.json();
+    }
+  }
+
+  private byte[] serialize(List<Patient> patients) {
+    try {
+      return writer.writeValueAsBytes(patients);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  private static byte[] gzip(byte[] payload) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (OutputStream gzip = new GZIPOutputStream(out)) {
+      gzip.write(payload);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+    return out.toByteArray();
+  }
+}
@@ -1,9 +1,13 @@
 package com.data.handler.patientdata;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+
 public enum Gender {
 
   MALE("MALE"), FEMALE("FEMALE"), OTHER("OTHER");
 
+  private static final Gender[] VALUES = values();
+
   private String gender;
 
   Gender(String gender){
@@ -13,4 +17,25 @@ public enum Gender {
   public String getGender(){
     return this.gender;
   }
+
+  /**
+   * Case insensitive lookup of a gender by its value. It walks a precomputed array instead of streaming over a fresh copy
+   * of {@link #values()}, so it does not allocate on the hot path of hydrating rows or deserializing requests.
+   *
+   * @param gender the gender value, for ex: "FEMALE" or "female"
+   * @return the matching gender, null for a null value
+   * @throws IllegalArgumentException for an unknown value
+   */
+  @JsonCreator(mode = JsonCreator.Mode.DELEGATING)
+  public static Gender fromGender(String gender) {
+    if (gender == null) {
+      return null;
+    }
+    for (Gender value : VALUES) {
+      if (value.gender.equalsIgnoreCase(gender)) {
+        return value;
+      }
+    }
+    throw new IllegalArgumentException(String.format("Unknown gender %s", gender));
+  }
 }
@@ -2,10 +2,14 @@ package com.data.handler.patientdata;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
-@SpringBootApplication
+// the reactive endpoints use their own R2DBC connection factory, a ConnectionFactory bean would replace the JDBC DataSource
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
 @EnableScheduling
+@EnableCaching
 public class PatientDataApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,81 @@
+package com.data.handler.patientdata.cache;
+
+import com.data.handler.patientdata.event.PatientsCreatedEvent;
+import com.data.handler.patientdata.event.PatientsDeletedEvent;
+import com.data.handler.patientdata.model.Patient;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * JSON encoded patients as returned by GET /api/v1/patients/{id}, so a patient is serialized once per version instead of
+ * once per request. The entries are bounded by their total size in bytes, the least valuable ones (Caffeine's frequency
+ * and recency based policy) are evicted first, and the entries not read for a while expire.
+ * <p>
+ * An entry is only returned for the version it was encoded from, the entries of created and deleted patients are removed
+ * once their transaction is committed. Hit and miss counts are published as the cache.gets metric of the patientJson cache.
+ */
+@Component
+public class PatientJsonCache {
+
+  static final String CACHE_NAME = "patientJson";
+
+  /**
+   * Approximate heap used by an entry besides its bytes: key, value holder, array header and the cache node.
+   */
+  private static final int ENTRY_OVERHEAD_BYTES = 96;
+
+  private final Cache<Long, EncodedPatient> cache;
+
+  public PatientJsonCache(@Value("${patient.json.cache.max.bytes}") long maxBytes,
+                          @Value("${patient.json.cache.expire.after.access.minutes}") long expireAfterAccessMinutes,
+                          MeterRegistry meterRegistry) {
+    this.cache = Caffeine.newBuilder()
+        .maximumWeight(maxBytes)
+        .weigher((Long id, EncodedPatient patient) -> patient.json.length + ENTRY_OVERHEAD_BYTES)
+        .expireAfterAccess(expireAfterAccessMinutes, TimeUnit.MINUTES)
+        .recordStats()
+        .build();
+    // same tag keys as the caches of the cache manager, prometheus drops meters of one name with differing tag keys
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME, "cache.manager", "none", "name", CACHE_NAME);
+  }
+
+  /**
+   * @return the JSON of the patient encoded from the given version, empty when it is not cached for that version
+   */
+  public Optional<byte[]> get(Long id, Long version) {
+    EncodedPatient patient = cache.getIfPresent(id);
+    return patient != null && patient.version.equals(version) ? Optional.of(patient.json) : Optional.empty();
+  }
+
+  public void put(Long id, Long version, byte[] json) {
+    cache.put(id, new EncodedPatient(version, json));
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onPatientsCreated(PatientsCreatedEvent event) {
+    event.getPatients().stream().map(Patient::getId).forEach(cache::invalidate);
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onPatientsDeleted(PatientsDeletedEvent event) {
+    cache.invalidateAll(event.getIds());
+  }
+
+  private static final class EncodedPatient {
+
+    private final Long version;
+    private final byte[] json;
+
+    private EncodedPatient(Long version, byte[] json) {
+      this.version = version;
+      this.json = json;
+    }
+  }
+}
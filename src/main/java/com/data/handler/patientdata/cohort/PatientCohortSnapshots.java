@@ -0,0 +1,199 @@
+package com.data.handler.patientdata.cohort;
+
+import com.data.handler.patientdata.Gender;
+import com.data.handler.patientdata.event.PatientsCreatedEvent;
+import com.data.handler.patientdata.event.PatientsDeletedEvent;
+import com.data.handler.patientdata.model.Patient;
+import com.data.handler.patientdata.model.PatientView;
+import com.data.handler.patientdata.repository.PatientRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * In memory snapshot of the patients of every gender, ordered by last name and id like the list endpoints, together with
+ * its JSON serialization. The serialized cohort is written to the response as it is, without a query or a serialization
+ * per request.
+ * <p>
+ * The snapshots are built when the application is ready, follow the {@link PatientsCreatedEvent} and
+ * {@link PatientsDeletedEvent} once their transaction is committed, the purge publishes the latter for every chunk. A
+ * changed cohort is serialized again on its next read only, so a burst of writes costs one serialization. The cohort is
+ * copied under the lock and serialized after releasing it, so writers never wait for a serialization.
+ */
+@Slf4j
+@Component
+public class PatientCohortSnapshots {
+
+  private static final Comparator<PatientView> LAST_NAME_ORDER = Comparator
+      .comparing(PatientView::getLastName, Comparator.nullsFirst(Comparator.naturalOrder()))
+      .thenComparing(PatientView::getId);
+
+  private final PatientRepository patientRepository;
+
+  private final TransactionTemplate transactionTemplate;
+
+  private final ObjectWriter writer;
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  private final Map<Gender, NavigableSet<PatientView>> cohorts = new EnumMap<>(Gender.class);
+
+  /**
+   * Cohort entries of every patient, so patients known by id only can be removed.
+   */
+  private final Map<Long, PatientView> patientsById = new HashMap<>();
+
+  /**
+   * Generation of every cohort, incremented on every change of the cohort.
+   */
+  private final Map<Gender, Long> generations = new EnumMap<>(Gender.class);
+
+  /**
+   * Last serialization of every cohort with the generation it was taken from.
+   */
+  private final Map<Gender, SerializedCohort> serializedCohorts = new ConcurrentHashMap<>();
+
+  private volatile boolean ready;
+
+  public PatientCohortSnapshots(PatientRepository patientRepository, TransactionTemplate transactionTemplate,
+                                ObjectMapper objectMapper) {
+    this.patientRepository = patientRepository;
+    this.transactionTemplate = transactionTemplate;
+    this.writer = objectMapper.writerFor(new TypeReference<Collection<PatientView>>() {
+    });
+    for (Gender gender : Gender.values()) {
+      cohorts.put(gender, new TreeSet<>(LAST_NAME_ORDER));
+      generations.put(gender, 0L);
+    }
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuild() {
+    long startedAt = System.nanoTime();
+    lock.writeLock().lock();
+    try {
+      cohorts.values().forEach(NavigableSet::clear);
+      patientsById.clear();
+      generations.replaceAll((gender, generation) -> generation + 1);
+      transactionTemplate.executeWithoutResult(status -> {
+        try (Stream<PatientView> patients = patientRepository.streamAllViews()) {
+          patients.forEach(this::add);
+        }
+      });
+      ready = true;
+    } finally {
+      lock.writeLock().unlock();
+    }
+    log.info("rebuild took a snapshot of the cohorts of {} patients in {} ms", patientsById.size(),
+        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onPatientsCreated(PatientsCreatedEvent event) {
+    lock.writeLock().lock();
+    try {
+      for (Patient patient : event.getPatients()) {
+        remove(patient.getId());
+        add(PatientView.of(patient));
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onPatientsDeleted(PatientsDeletedEvent event) {
+    lock.writeLock().lock();
+    try {
+      event.getIds().forEach(this::remove);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * @return the cohort of the gender as a JSON array ordered by last name, empty until the snapshots are built
+   */
+  public Optional<byte[]> getSerializedCohort(Gender gender) {
+    if (!ready) {
+      return Optional.empty();
+    }
+    long generation;
+    List<PatientView> cohort;
+    lock.readLock().lock();
+    try {
+      generation = generations.get(gender);
+      SerializedCohort serialized = serializedCohorts.get(gender);
+      if (serialized != null && serialized.generation == generation) {
+        return Optional.of(serialized.json);
+      }
+      cohort = new ArrayList<>(cohorts.get(gender));
+    } finally {
+      lock.readLock().unlock();
+    }
+    byte[] json = serialize(cohort);
+    // concurrent readers may serialize the same generation, a serialization never replaces a newer one
+    serializedCohorts.merge(gender, new SerializedCohort(generation, json),
+        (current, candidate) -> candidate.generation > current.generation ? candidate : current);
+    return Optional.of(json);
+  }
+
+  private byte[] serialize(List<PatientView> cohort) {
+    try {
+      return writer.writeValueAsBytes(cohort);
+    } catch (JsonProcessingException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  private void add(PatientView patient) {
+    if (patient.getGender() == null) {
+      return;
+    }
+    cohorts.get(patient.getGender()).add(patient);
+    patientsById.put(patient.getId(), patient);
+    generations.merge(patient.getGender(), 1L, Long::sum);
+  }
+
+  private void remove(Long id) {
+    PatientView patient = patientsById.remove(id);
+    if (patient != null) {
+      cohorts.get(patient.getGender()).remove(patient);
+      generations.merge(patient.getGender(), 1L, Long::sum);
+    }
+  }
+
+  private static final class SerializedCohort {
+
+    private final long generation;
+    private final byte[] json;
+
+    private SerializedCohort(long generation, byte[] json) {
+      this.generation = generation;
+      this.json = json;
+    }
+  }
+}
@@ -0,0 +1,25 @@
+package com.data.handler.patientdata.config;
+
+import com.data.handler.patientdata.util.PatientUtil;
+import java.time.Clock;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ClockConfig {
+
+  @Bean
+  public Clock clock() {
+    return Clock.systemDefaultZone();
+  }
+
+  /**
+   * The entity callbacks and the constraint validators are not spring beans, they read the current date of the clock bean
+   * through {@link PatientUtil}.
+   */
+  @Bean
+  public InitializingBean patientUtilClock(Clock clock) {
+    return () -> PatientUtil.setClock(clock);
+  }
+}
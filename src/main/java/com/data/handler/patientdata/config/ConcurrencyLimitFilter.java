@@ -0,0 +1,53 @@
+package com.data.handler.patientdata.config;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Bounds the number of requests processed at the same time. With a thread per request the thread pool bounds it, with
+ * virtual threads nothing does and every blocked request would wait for a pooled connection instead. Requests waiting for
+ * longer than the timeout are answered with 503.
+ */
+@Slf4j
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+  private final Semaphore permits;
+
+  private final long acquireTimeoutMillis;
+
+  public ConcurrencyLimitFilter(int maxConcurrentRequests, long acquireTimeoutMillis) {
+    this.permits = new Semaphore(maxConcurrentRequests, true);
+    this.acquireTimeoutMillis = acquireTimeoutMillis;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    boolean acquired;
+    try {
+      acquired = permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      acquired = false;
+    }
+    if (!acquired) {
+      log.warn("doFilterInternal rejected {} {}, no permit within {} ms", request.getMethod(), request.getRequestURI(),
+          acquireTimeoutMillis);
+      response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Too many concurrent requests");
+      return;
+    }
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      permits.release();
+    }
+  }
+}
@@ -0,0 +1,32 @@
+package com.data.handler.patientdata.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * Two connection pools on the same database: the primary pool (spring.datasource.hikari.*) serves the API, JPA and the
+ * migrations, the small purge pool (patient.purge.datasource.hikari.*) only serves the long running purge, which therefore
+ * never holds connections the requests wait for. Both pools publish the hikaricp.* metrics tagged with their pool name.
+ */
+@Configuration
+public class DataSourceConfig {
+
+  public static final String PURGE_DATA_SOURCE = "purgeDataSource";
+
+  @Bean
+  @Primary
+  @ConfigurationProperties("spring.datasource.hikari")
+  public HikariDataSource dataSource(DataSourceProperties dataSourceProperties) {
+    return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+  }
+
+  @Bean(PURGE_DATA_SOURCE)
+  @ConfigurationProperties("patient.purge.datasource.hikari")
+  public HikariDataSource purgeDataSource(DataSourceProperties dataSourceProperties) {
+    return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+  }
+}
@@ -0,0 +1,18 @@
+package com.data.handler.patientdata.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+  /**
+   * Records the methods annotated with {@link io.micrometer.core.annotation.Timed}, tagged with their class and method name.
+   */
+  @Bean
+  public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+    return new TimedAspect(meterRegistry);
+  }
+}
@@ -0,0 +1,45 @@
+package com.data.handler.patientdata.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates virtual threads through reflection, the application is compiled for Java 11 where the virtual thread API does not
+ * exist. Every method fails with an {@link IllegalStateException} on a runtime older than Java 21.
+ */
+final class VirtualThreads {
+
+  private VirtualThreads() {
+  }
+
+  static ExecutorService newVirtualThreadPerTaskExecutor() {
+    try {
+      return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    } catch (ReflectiveOperationException ex) {
+      throw unsupported(ex);
+    }
+  }
+
+  /**
+   * @return factory of virtual threads named prefix0, prefix1...
+   */
+  static ThreadFactory newVirtualThreadFactory(String prefix) {
+    try {
+      Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+      Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+      builder = builderType.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+      return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+    } catch (ReflectiveOperationException ex) {
+      throw unsupported(ex);
+    }
+  }
+
+  private static IllegalStateException unsupported(ReflectiveOperationException ex) {
+    Throwable cause = ex instanceof InvocationTargetException ? ex.getCause() : ex;
+    return new IllegalStateException(String.format(
+        "Virtual threads are not available on Java %s, they require Java 21 or later",
+        System.getProperty("java.specification.version")), cause);
+  }
+}
@@ -0,0 +1,47 @@
+package com.data.handler.patientdata.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Opt-in mode running the servlet requests and the scheduled tasks (the purge) on virtual threads, requires Java 21 or
+ * later at runtime.
+ * <p>
+ * JDBC calls block, and a virtual thread blocked inside a synchronized block of the driver pins its carrier thread. The
+ * requests in flight are therefore limited to the size of the connection pool, so the virtual threads queue on a fair
+ * semaphore rather than piling up on the pool or on the carriers.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "app.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadsConfig {
+
+  @Bean
+  public TomcatProtocolHandlerCustomizer<?> virtualThreadsProtocolHandlerCustomizer() {
+    log.info("virtualThreadsProtocolHandlerCustomizer servlet requests run on virtual threads");
+    return protocolHandler -> protocolHandler.setExecutor(VirtualThreads.newVirtualThreadPerTaskExecutor());
+  }
+
+  @Bean
+  public ThreadPoolTaskScheduler taskScheduler() {
+    ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+    scheduler.setThreadFactory(VirtualThreads.newVirtualThreadFactory("scheduling-virtual-"));
+    return scheduler;
+  }
+
+  @Bean
+  public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+      @Value("${app.threads.virtual.max.concurrent.requests}") int maxConcurrentRequests,
+      @Value("${app.threads.virtual.acquire.timeout.millis}") long acquireTimeoutMillis) {
+    FilterRegistrationBean<ConcurrencyLimitFilter> registration =
+        new FilterRegistrationBean<>(new ConcurrencyLimitFilter(maxConcurrentRequests, acquireTimeoutMillis));
+    registration.addUrlPatterns("/api/*");
+    return registration;
+  }
+}
@@ -0,0 +1,34 @@
+package com.data.handler.patientdata.constraints;
+
+import com.data.handler.patientdata.model.Patient;
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Validates patients submitted for creation outside of a single request body, for ex: the items of a batch or the rows of an
+ * import, against the constraints declared on {@link Patient}.
+ */
+@Component
+@RequiredArgsConstructor
+public class NewPatientValidator {
+
+  private final Validator validator;
+
+  /**
+   * @param patient the patient to be created
+   * @return the sorted violation messages, empty when the patient can be created
+   */
+  public List<String> validate(Patient patient) {
+    if (patient == null) {
+      return List.of("Patient is required");
+    }
+    if (patient.getId() != null) {
+      return List.of("Id must not be provided for a new patient");
+    }
+    return validator.validate(patient).stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.toList());
+  }
+}
@@ -20,4 +20,9 @@ public @interface PatientAgeEligible {
   String message() default "Non Eligible Patient Age";
   Class <?> [] groups() default {};
   Class <? extends Payload> [] payload() default {};
+
+  /**
+   * Minimum age in completed years on the current date of {@link com.data.handler.patientdata.util.PatientUtil}.
+   */
+  int minimumAge() default 18;
 }
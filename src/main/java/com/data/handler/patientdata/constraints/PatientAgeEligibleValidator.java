@@ -1,20 +1,48 @@
 package com.data.handler.patientdata.constraints;
 
+import com.data.handler.patientdata.util.PatientUtil;
 import java.time.LocalDate;
-import java.time.temporal.ChronoUnit;
-import java.util.Calendar;
-import java.util.Date;
 import javax.validation.ConstraintValidator;
 import javax.validation.ConstraintValidatorContext;
 
+/**
+ * Compares the birth date with the latest eligible birth date, computed once per day of the application clock instead of
+ * computing the age of every validated patient.
+ */
 public class PatientAgeEligibleValidator implements ConstraintValidator<PatientAgeEligible, LocalDate> {
 
+  private int minimumAge = 18;
+
+  private volatile Cutoff cutoff;
+
+  @Override
+  public void initialize(PatientAgeEligible constraintAnnotation) {
+    minimumAge = constraintAnnotation.minimumAge();
+    cutoff = null;
+  }
+
   @Override
   public boolean isValid(LocalDate patientBirthDate, ConstraintValidatorContext constraintValidatorContext) {
     if(patientBirthDate == null){
       return false;
     }
-    int patientsEligibleAge = 18;
-    return ChronoUnit.YEARS.between(patientBirthDate, LocalDate.now()) >= patientsEligibleAge;
+    LocalDate today = PatientUtil.getCurrentDate();
+    Cutoff current = cutoff;
+    if (current == null || !current.today.equals(today)) {
+      current = new Cutoff(today, today.minusYears(minimumAge));
+      cutoff = current;
+    }
+    return !patientBirthDate.isAfter(current.latestBirthDate);
+  }
+
+  private static final class Cutoff {
+
+    private final LocalDate today;
+    private final LocalDate latestBirthDate;
+
+    private Cutoff(LocalDate today, LocalDate latestBirthDate) {
+      this.today = today;
+      this.latestBirthDate = latestBirthDate;
+    }
   }
 }
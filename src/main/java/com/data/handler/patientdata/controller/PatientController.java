@@ -1,15 +1,39 @@
 package com.data.handler.patientdata.controller;
 
+import com.data.handler.patientdata.Gender;
+import com.data.handler.patientdata.cache.PatientJsonCache;
+import com.data.handler.patientdata.cohort.PatientCohortSnapshots;
+import com.data.handler.patientdata.exception.InvalidRequestException;
 import com.data.handler.patientdata.exception.ResourceNotFoundException;
 import com.data.handler.patientdata.model.Patient;
+import com.data.handler.patientdata.model.PatientBatchResult;
+import com.data.handler.patientdata.model.PatientFilter;
+import com.data.handler.patientdata.model.PatientImportFormat;
+import com.data.handler.patientdata.model.PatientImportJob;
+import com.data.handler.patientdata.model.PatientPage;
+import com.data.handler.patientdata.model.PatientView;
+import com.data.handler.patientdata.model.PatientsFingerprint;
+import com.data.handler.patientdata.service.PatientImportService;
 import com.data.handler.patientdata.service.PatientService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.Positive;
 import lombok.AllArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -18,8 +42,10 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @Validated
@@ -27,43 +53,149 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/api/v1")
 public class PatientController {
 
+  private static final MediaType SMILE = MediaType.valueOf("application/x-jackson-smile");
+
   private PatientService patientService;
 
+  private PatientImportService patientImportService;
+
+  private PatientCohortSnapshots patientCohortSnapshots;
+
+  private PatientJsonCache patientJsonCache;
+
+  private ObjectMapper objectMapper;
+
+  /**
+   * The ETag is taken before the patients are read, so a concurrent change at worst makes the next request read them again.
+   */
   @GetMapping("/patients")
-  public ResponseEntity<List<Patient>> getAllPatients() {
-    Optional<List<Patient>> patients = patientService.getAllPatientsOrderByLastNameAsc();
+  public ResponseEntity<List<PatientView>> getAllPatients(@RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) List<String> ifNoneMatch,
+                                                          @RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept) {
+    PatientsFingerprint fingerprint = patientService.getPatientsFingerprint();
+    String eTag = String.format("W/\"patients-%s-%s-%s-%s\"", fingerprint.getCount(), fingerprint.getMaxId(),
+        fingerprint.getMaxVersion(), formatTag(accept));
+    if (isNotModified(ifNoneMatch, eTag)) {
+      return negotiated(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+    }
+    Optional<List<PatientView>> patients = patientService.getAllPatientsOrderByLastNameAsc();
     if (patients.isEmpty()) {
-      return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+      return negotiated(HttpStatus.NO_CONTENT).eTag(eTag).build();
     } else {
-      return new ResponseEntity<>(patients.get(), HttpStatus.OK);
+      return negotiated(HttpStatus.OK).eTag(eTag).body(patients.get());
     }
   }
 
+  @GetMapping("/patients/paged")
+  public ResponseEntity<PatientPage> getPatientsPage(@RequestParam(name = "cursor", required = false) String cursor,
+                                                     @RequestParam(name = "size", defaultValue = "100") @Positive @Max(1000) int size) {
+    return negotiated(HttpStatus.OK).body(patientService.getPatientsPageOrderByLastNameAsc(cursor, size));
+  }
+
+  @GetMapping(value = "/patients/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> exportPatients() {
+    StreamingResponseBody responseBody = outputStream -> {
+      try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+        patientService.exportPatientsOrderByLastNameAsc(patient -> {
+          try {
+            generator.writeObject(patient);
+            generator.writeRaw('\n');
+          } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+          }
+        });
+      }
+    };
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(responseBody);
+  }
+
+  /**
+   * JSON responses are written from the serialized snapshot of the female cohort in a single write, the other formats (and
+   * the requests served before the snapshot is built) are serialized from the patients of the service.
+   */
   @GetMapping("/patients/female")
-  public ResponseEntity<List<Patient>> getFemalePatients() {
-    Optional<List<Patient>> patients = patientService.getListOfFemalePatients();
+  public ResponseEntity<?> getFemalePatients(@RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept) {
+    if (prefersJson(accept)) {
+      Optional<byte[]> cohort = patientCohortSnapshots.getSerializedCohort(Gender.FEMALE);
+      if (cohort.isPresent()) {
+        return negotiated(HttpStatus.OK).contentType(MediaType.APPLICATION_JSON).body(cohort.get());
+      }
+    }
+    Optional<List<PatientView>> patients = patientService.getListOfFemalePatients();
     if (patients.isEmpty()) {
-      return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+      return negotiated(HttpStatus.NO_CONTENT).build();
     } else {
-      return new ResponseEntity<>(patients.get(), HttpStatus.OK);
+      return negotiated(HttpStatus.OK).body(patients.get());
     }
   }
 
+  @GetMapping("/patients/filter")
+  public ResponseEntity<PatientPage> filterPatients(@RequestParam(name = "gender", required = false) String gender,
+                                                    @RequestParam(name = "birthDayFrom", required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate birthDayFrom,
+                                                    @RequestParam(name = "birthDayTo", required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate birthDayTo,
+                                                    @RequestParam(name = "createdOnFrom", required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate createdOnFrom,
+                                                    @RequestParam(name = "createdOnTo", required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate createdOnTo,
+                                                    @RequestParam(name = "lastNamePrefix", required = false) String lastNamePrefix,
+                                                    @RequestParam(name = "cursor", required = false) String cursor,
+                                                    @RequestParam(name = "size", defaultValue = "100") @Positive @Max(1000) int size) {
+    PatientFilter filter = PatientFilter.builder()
+        .gender(parseGender(gender))
+        .birthDayFrom(birthDayFrom).birthDayTo(birthDayTo)
+        .createdOnFrom(createdOnFrom).createdOnTo(createdOnTo)
+        .lastNamePrefix(lastNamePrefix)
+        .build();
+    return negotiated(HttpStatus.OK).body(patientService.filterPatients(filter, cursor, size));
+  }
+
+  @GetMapping("/patients/search")
+  public ResponseEntity<List<PatientView>> searchPatientsByName(@RequestParam(name = "name") @NotBlank String name,
+                                                                @RequestParam(name = "fuzzy", defaultValue = "false") boolean fuzzy,
+                                                                @RequestParam(name = "limit", defaultValue = "50") @Positive @Max(1000) int limit) {
+    return negotiated(HttpStatus.OK).body(patientService.searchPatientsByName(name, fuzzy, limit));
+  }
+
+  /**
+   * A conditional request only reads the version of the patient, the patient itself is loaded when it has changed. JSON
+   * responses are written from the bytes cached for the current version of the patient, so the patient is only loaded and
+   * serialized once per version. The version comes from the patients cache or a single column query.
+   */
   @GetMapping("/patients/{id}")
-  public ResponseEntity<Patient> getPatientById(@PathVariable("id") @Positive Long id){
+  public ResponseEntity<?> getPatientById(@PathVariable("id") @Positive Long id,
+                                          @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) List<String> ifNoneMatch,
+                                          @RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept) throws IOException {
+    boolean json = prefersJson(accept);
+    if (ifNoneMatch != null || json) {
+      Long version = patientService.findPatientVersionById(id)
+          .orElseThrow(() -> new ResourceNotFoundException(String.format("Patient with Id %s not found", id)));
+      String eTag = patientETag(id, version, accept);
+      if (isNotModified(ifNoneMatch, eTag)) {
+        return negotiated(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+      }
+      Optional<byte[]> cachedJson = json ? patientJsonCache.get(id, version) : Optional.empty();
+      if (cachedJson.isPresent()) {
+        return negotiated(HttpStatus.OK).eTag(eTag).contentType(MediaType.APPLICATION_JSON).body(cachedJson.get());
+      }
+    }
     Patient patient = patientService.findPatientById(id)
         .orElseThrow(() -> new ResourceNotFoundException(String.format("Patient with Id %s not found", id)));
-    return new ResponseEntity<>(patient, HttpStatus.OK);
+    String eTag = patientETag(id, patient.getVersion(), accept);
+    if (json) {
+      byte[] encoded = objectMapper.writeValueAsBytes(patient);
+      patientJsonCache.put(id, patient.getVersion(), encoded);
+      return negotiated(HttpStatus.OK).eTag(eTag).contentType(MediaType.APPLICATION_JSON).body(encoded);
+    }
+    return negotiated(HttpStatus.OK).eTag(eTag).body(patient);
   }
 
   @GetMapping("/patients/byName")
-  public ResponseEntity<List<Patient>> getPatientsByFirstAndLastName(@RequestParam(name = "firstName") @NotBlank String firstName,
+  public ResponseEntity<List<PatientView>> getPatientsByFirstAndLastName(@RequestParam(name = "firstName") @NotBlank String firstName,
                                                                      @RequestParam(name = "lastName") @NotBlank String lastName) {
-    Optional<List<Patient>> patients = patientService.findPatientByFirstNameAndLastName(firstName, lastName);
+    Optional<List<PatientView>> patients = patientService.findPatientByFirstNameAndLastName(firstName, lastName);
     if (patients.isEmpty()) {
       throw new ResourceNotFoundException(String.format("Patient with firstName %s and lastName %s not found", firstName, lastName));
     }else{
-      return new ResponseEntity<>(patients.get(), HttpStatus.OK);
+      return negotiated(HttpStatus.OK).body(patients.get());
     }
   }
 
@@ -72,12 +204,110 @@ public class PatientController {
     return new ResponseEntity<>(patientService.createPatient(patient), HttpStatus.CREATED);
   }
 
+  @PostMapping("/patients/batch")
+  public ResponseEntity<PatientBatchResult> createPatients(@RequestBody List<Patient> patients) {
+    PatientBatchResult result = patientService.createPatients(patients);
+    return new ResponseEntity<>(result, result.getRejected() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS);
+  }
+
+  @PostMapping(value = "/patients/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+  public ResponseEntity<PatientImportJob> importPatients(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                         InputStream content) {
+    PatientImportJob job = patientImportService.startImport(content, PatientImportFormat.fromContentType(contentType));
+    return new ResponseEntity<>(job, HttpStatus.ACCEPTED);
+  }
+
+  @GetMapping("/patients/import/{jobId}")
+  public ResponseEntity<PatientImportJob> getImportJob(@PathVariable("jobId") String jobId) {
+    PatientImportJob job = patientImportService.findImportJob(jobId)
+        .orElseThrow(() -> new ResourceNotFoundException(String.format("Import job with Id %s not found", jobId)));
+    return negotiated(HttpStatus.OK).body(job);
+  }
+
   @DeleteMapping("/patients/{id}")
   public ResponseEntity<String> deletePatient(@PathVariable("id") @Positive Long id) {
-    Patient patient = patientService.findPatientById(id)
-        .orElseThrow(() -> new ResourceNotFoundException(String.format("Patient with Id %s not found", id)));
-    patientService.deletePatient(patient);
+    if (!patientService.deletePatientById(id)) {
+      throw new ResourceNotFoundException(String.format("Patient with Id %s not found", id));
+    }
 
     return new ResponseEntity<>("Patient deleted successfully", HttpStatus.OK);
   }
+
+  @DeleteMapping("/patients")
+  public ResponseEntity<String> deletePatients(@RequestParam(name = "ids") List<@Positive Long> ids) {
+    int deleted = patientService.deletePatientsByIds(ids);
+
+    return new ResponseEntity<>(String.format("%s patients deleted successfully", deleted), HttpStatus.OK);
+  }
+
+  /**
+   * Weak ETags, the compressed and the plain response of the same version carry the same tag. The JSON, CBOR and Smile
+   * responses of the same version carry different tags, a validator of one format never revalidates another.
+   */
+  private static String patientETag(Long id, Long version, String accept) {
+    return String.format("W/\"patient-%s-%s-%s\"", id, version, formatTag(accept));
+  }
+
+  /**
+   * Responses whose format is negotiated from the Accept header, the Vary header keeps shared caches from serving the
+   * response of one format to a client asking for another.
+   */
+  private static ResponseEntity.BodyBuilder negotiated(HttpStatus status) {
+    return ResponseEntity.status(status).varyBy(HttpHeaders.ACCEPT);
+  }
+
+  /**
+   * Format part of the ETags: json, cbor or x-jackson-smile.
+   */
+  private static String formatTag(String accept) {
+    MediaType mediaType = negotiatedMediaType(accept);
+    return mediaType == null ? "none" : mediaType.getSubtype();
+  }
+
+  private static boolean isNotModified(List<String> ifNoneMatch, String eTag) {
+    if (ifNoneMatch == null) {
+      return false;
+    }
+    String opaqueTag = eTag.substring(2);
+    return ifNoneMatch.stream()
+        .map(String::trim)
+        .anyMatch(tag -> tag.equals("*") || (tag.startsWith("W/") ? tag.substring(2) : tag).equals(opaqueTag));
+  }
+
+  private static boolean prefersJson(String accept) {
+    return MediaType.APPLICATION_JSON.equals(negotiatedMediaType(accept));
+  }
+
+  /**
+   * Format the client prefers among the formats of the responses (JSON, CBOR and Smile), null when it accepts none of them.
+   * A missing Accept header and wildcards select JSON, like the content negotiation does with the JSON converter
+   * registered first.
+   */
+  private static MediaType negotiatedMediaType(String accept) {
+    if (accept == null || accept.isBlank()) {
+      return MediaType.APPLICATION_JSON;
+    }
+    try {
+      List<MediaType> mediaTypes = MediaType.parseMediaTypes(accept);
+      MediaType.sortBySpecificityAndQuality(mediaTypes);
+      for (MediaType mediaType : mediaTypes) {
+        for (MediaType produced : List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, SMILE)) {
+          if (mediaType.includes(produced)) {
+            return produced;
+          }
+        }
+      }
+    } catch (InvalidMediaTypeException ex) {
+      // left to the content negotiation of the regular response
+    }
+    return null;
+  }
+
+  private static Gender parseGender(String gender) {
+    try {
+      return Gender.fromGender(gender);
+    } catch (IllegalArgumentException ex) {
+      throw new InvalidRequestException(ex.getMessage());
+    }
+  }
 }
@@ -0,0 +1,36 @@
+package com.data.handler.patientdata.controller;
+
+import com.data.handler.patientdata.Gender;
+import com.data.handler.patientdata.model.PatientView;
+import com.data.handler.patientdata.repository.ReactivePatientRepository;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+/**
+ * Reactive variant of the list endpoints of {@link PatientController}, streamed as newline delimited JSON. Each patient is
+ * written as soon as its row is read, and rows are only read as fast as the client consumes them, no thread is held
+ * while the client or the database is slow.
+ */
+@RestController
+@ConditionalOnProperty(name = "patient.reactive.enabled", havingValue = "true")
+@AllArgsConstructor
+@RequestMapping("/api/v1/reactive")
+public class ReactivePatientController {
+
+  private ReactivePatientRepository reactivePatientRepository;
+
+  @GetMapping(value = "/patients", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public Flux<PatientView> getAllPatients() {
+    return reactivePatientRepository.findAllByOrderByLastNameAsc();
+  }
+
+  @GetMapping(value = "/patients/female", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public Flux<PatientView> getFemalePatients() {
+    return reactivePatientRepository.findAllByGenderOrderByLastNameAsc(Gender.FEMALE);
+  }
+}
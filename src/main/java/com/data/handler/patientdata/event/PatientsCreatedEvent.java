@@ -0,0 +1,18 @@
+package com.data.handler.patientdata.event;
+
+import com.data.handler.patientdata.model.Patient;
+import java.util.List;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Published once patients are stored. Listeners interested in committed data only should listen after commit.
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class PatientsCreatedEvent {
+
+  private final List<Patient> patients;
+}
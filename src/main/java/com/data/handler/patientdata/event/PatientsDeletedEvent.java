@@ -0,0 +1,18 @@
+package com.data.handler.patientdata.event;
+
+import java.util.Collection;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Published once patients are deleted, by a client request or by the purge. The ids may include patients that did not
+ * exist.
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class PatientsDeletedEvent {
+
+  private final Collection<Long> ids;
+}
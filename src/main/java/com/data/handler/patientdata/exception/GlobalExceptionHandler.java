@@ -47,6 +47,42 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
     return new ResponseEntity<>(message, HttpStatus.NOT_FOUND);
   }
 
+  @ExceptionHandler(InvalidRequestException.class)
+  public ResponseEntity<ErrorMessage> invalidRequestException(InvalidRequestException ex, WebRequest request) {
+    ErrorMessage message = new ErrorMessage(
+        HttpStatus.BAD_REQUEST.value(),
+        LocalDateTime.now(),
+        List.of(ex.getMessage()),
+        request.getDescription(false));
+
+    return new ResponseEntity<>(message, HttpStatus.BAD_REQUEST);
+  }
+
+  @ExceptionHandler(PayloadTooLargeException.class)
+  public ResponseEntity<ErrorMessage> payloadTooLargeException(PayloadTooLargeException ex, WebRequest request) {
+    ErrorMessage message = new ErrorMessage(
+        HttpStatus.PAYLOAD_TOO_LARGE.value(),
+        LocalDateTime.now(),
+        List.of(ex.getMessage()),
+        request.getDescription(false));
+
+    return new ResponseEntity<>(message, HttpStatus.PAYLOAD_TOO_LARGE);
+  }
+
+  /**
+   * The client is asked to retry later, once the running work is done.
+   */
+  @ExceptionHandler(ServiceUnavailableException.class)
+  public ResponseEntity<ErrorMessage> serviceUnavailableException(ServiceUnavailableException ex, WebRequest request) {
+    ErrorMessage message = new ErrorMessage(
+        HttpStatus.SERVICE_UNAVAILABLE.value(),
+        LocalDateTime.now(),
+        List.of(ex.getMessage()),
+        request.getDescription(false));
+
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "60").body(message);
+  }
+
   @ExceptionHandler(Exception.class)
   public ResponseEntity<ErrorMessage> globalExceptionHandler(Exception ex, WebRequest request) {
     ErrorMessage message = new ErrorMessage(
@@ -0,0 +1,12 @@
+package com.data.handler.patientdata.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.PAYLOAD_TOO_LARGE)
+public class PayloadTooLargeException extends RuntimeException{
+
+  public PayloadTooLargeException(String errorMessage){
+    super(errorMessage);
+  }
+}
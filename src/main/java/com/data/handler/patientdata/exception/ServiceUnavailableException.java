@@ -0,0 +1,12 @@
+package com.data.handler.patientdata.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ServiceUnavailableException extends RuntimeException{
+
+  public ServiceUnavailableException(String errorMessage){
+    super(errorMessage);
+  }
+}
@@ -0,0 +1,42 @@
+package com.data.handler.patientdata.logging;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Logs a sample of the service calls as single line key=value events on the patient.hotpath logger. Calls that are not
+ * sampled only cost a random draw, no message is built for them.
+ */
+@Slf4j(topic = "patient.hotpath")
+@Aspect
+@Component
+public class HotPathLoggingAspect {
+
+  @Value("${patient.logging.hotpath.sample.rate}")
+  private double sampleRate;
+
+  @Around("execution(public * com.data.handler.patientdata.service.PatientService+.*(..))")
+  public Object logSampledCall(ProceedingJoinPoint joinPoint) throws Throwable {
+    if (ThreadLocalRandom.current().nextDouble() >= sampleRate || !log.isInfoEnabled()) {
+      return joinPoint.proceed();
+    }
+    long startedAt = System.nanoTime();
+    String outcome = "success";
+    try {
+      return joinPoint.proceed();
+    } catch (Throwable e) {
+      outcome = e.getClass().getSimpleName();
+      throw e;
+    } finally {
+      log.info("event=service.call operation={} outcome={} durationMicros={} sampleRate={}",
+          joinPoint.getSignature().getName(), outcome,
+          TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startedAt), sampleRate);
+    }
+  }
+}
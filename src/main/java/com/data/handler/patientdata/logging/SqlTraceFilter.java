@@ -0,0 +1,37 @@
+package com.data.handler.patientdata.logging;
+
+import java.io.IOException;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Marks the requests sent with the {@value #SQL_TRACE_HEADER} header, {@link SqlTraceTurboFilter} then logs the statements
+ * they run on the request thread.
+ */
+@Component
+@ConditionalOnProperty(name = "patient.logging.sql.trace.enabled", havingValue = "true")
+public class SqlTraceFilter extends OncePerRequestFilter {
+
+  public static final String SQL_TRACE_HEADER = "X-Sql-Trace";
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    if (!Boolean.parseBoolean(request.getHeader(SQL_TRACE_HEADER))) {
+      filterChain.doFilter(request, response);
+      return;
+    }
+    MDC.put(SqlTraceTurboFilter.SQL_TRACE_KEY, "true");
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      MDC.remove(SqlTraceTurboFilter.SQL_TRACE_KEY);
+    }
+  }
+}
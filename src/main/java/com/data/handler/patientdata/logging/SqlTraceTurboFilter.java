@@ -0,0 +1,27 @@
+package com.data.handler.patientdata.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+/**
+ * Enables the hibernate statement logger (org.hibernate.SQL) at debug level for the threads marked by
+ * {@link SqlTraceFilter}, the logger keeps its configured level everywhere else.
+ */
+public class SqlTraceTurboFilter extends TurboFilter {
+
+  public static final String SQL_TRACE_KEY = "sqlTrace";
+
+  private static final String SQL_LOGGER = "org.hibernate.SQL";
+
+  @Override
+  public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+    if (level == Level.DEBUG && SQL_LOGGER.equals(logger.getName()) && MDC.get(SQL_TRACE_KEY) != null) {
+      return FilterReply.ACCEPT;
+    }
+    return FilterReply.NEUTRAL;
+  }
+}
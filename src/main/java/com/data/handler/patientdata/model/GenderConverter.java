@@ -1,7 +1,6 @@
 package com.data.handler.patientdata.model;
 
 import com.data.handler.patientdata.Gender;
-import java.util.stream.Stream;
 import javax.persistence.AttributeConverter;
 import javax.persistence.Converter;
 
@@ -32,7 +31,6 @@ public class GenderConverter implements AttributeConverter<Gender, String> {
    */
   @Override
   public Gender convertToEntityAttribute(String gender) {
-    return Stream.of(Gender.values()).filter(genderEnum -> genderEnum.getGender().equalsIgnoreCase(gender)).findFirst()
-        .orElseThrow(IllegalArgumentException::new);
+    return Gender.fromGender(gender);
   }
 }
@@ -3,13 +3,18 @@ package com.data.handler.patientdata.model;
 import com.data.handler.patientdata.Gender;
 import com.data.handler.patientdata.constraints.PatientAgeEligible;
 import com.data.handler.patientdata.util.PatientUtil;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonProperty.Access;
 import java.time.LocalDate;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.PrePersist;
+import javax.persistence.Table;
+import javax.persistence.Version;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Past;
@@ -20,8 +25,19 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "patient")
+@Table(name = "patient", indexes = {
+    @Index(name = "idx_patient_gender_last_name", columnList = "gender, last_name"),
+    @Index(name = "idx_patient_last_name_first_name", columnList = "last_name, first_name"),
+    @Index(name = "idx_patient_created_on_id", columnList = "created_on, id"),
+    @Index(name = "idx_patient_version", columnList = "version")})
 @Getter
 @Setter
 @ToString
@@ -31,7 +47,9 @@ import lombok.ToString;
 public class Patient {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.AUTO)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "patient_id_generator")
+  @GenericGenerator(name = "patient_id_generator", strategy = "com.data.handler.patientdata.model.PooledLoSequenceGenerator",
+      parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "patient_seq"))
   @Column(name = "id")
   private Long id;
 
@@ -58,6 +76,11 @@ public class Patient {
   @Column(name = "created_on")
   private LocalDate createdOn;
 
+  @Version
+  @JsonProperty(access = Access.READ_ONLY)
+  @Column(name = "version")
+  private Long version;
+
   @PrePersist
   void setCreatedDate(){
     setCreatedOn(PatientUtil.getCurrentDate());
@@ -0,0 +1,20 @@
+package com.data.handler.patientdata.model;
+
+import java.util.List;
+import lombok.Data;
+
+@Data
+public class PatientBatchItemResult {
+
+  public enum Status {
+    CREATED, REJECTED
+  }
+
+  /**
+   * Position of the patient in the submitted list.
+   */
+  private final int index;
+  private final Long id;
+  private final Status status;
+  private final List<String> messages;
+}
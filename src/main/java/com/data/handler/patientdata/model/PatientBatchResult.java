@@ -0,0 +1,12 @@
+package com.data.handler.patientdata.model;
+
+import java.util.List;
+import lombok.Data;
+
+@Data
+public class PatientBatchResult {
+
+  private final int created;
+  private final int rejected;
+  private final List<PatientBatchItemResult> items;
+}
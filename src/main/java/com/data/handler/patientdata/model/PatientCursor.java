@@ -0,0 +1,42 @@
+package com.data.handler.patientdata.model;
+
+import com.data.handler.patientdata.exception.InvalidRequestException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Keyset position (lastName, id) of the last patient returned to a client, exchanged as an url safe base64 token.
+ */
+@Getter
+@RequiredArgsConstructor
+public class PatientCursor {
+
+  private static final char SEPARATOR = ':';
+
+  private final String lastName;
+  private final Long id;
+
+  public static PatientCursor of(PatientView patient) {
+    return new PatientCursor(patient.getLastName(), patient.getId());
+  }
+
+  public String encode() {
+    String position = id + String.valueOf(SEPARATOR) + lastName;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+  }
+
+  public static PatientCursor decode(String token) {
+    try {
+      String position = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+      int separatorIndex = position.indexOf(SEPARATOR);
+      if (separatorIndex < 1) {
+        throw new InvalidRequestException(String.format("Invalid cursor %s", token));
+      }
+      return new PatientCursor(position.substring(separatorIndex + 1), Long.valueOf(position.substring(0, separatorIndex)));
+    } catch (IllegalArgumentException ex) {
+      throw new InvalidRequestException(String.format("Invalid cursor %s", token));
+    }
+  }
+}
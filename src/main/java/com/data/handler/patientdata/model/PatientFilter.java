@@ -0,0 +1,23 @@
+package com.data.handler.patientdata.model;
+
+import com.data.handler.patientdata.Gender;
+import java.time.LocalDate;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Criteria of a patient filter, every criterion left null matches all patients. Date ranges are inclusive.
+ */
+@Getter
+@Builder
+@ToString
+public class PatientFilter {
+
+  private final Gender gender;
+  private final LocalDate birthDayFrom;
+  private final LocalDate birthDayTo;
+  private final LocalDate createdOnFrom;
+  private final LocalDate createdOnTo;
+  private final String lastNamePrefix;
+}
@@ -0,0 +1,25 @@
+package com.data.handler.patientdata.model;
+
+import com.data.handler.patientdata.exception.InvalidRequestException;
+import org.springframework.http.MediaType;
+
+public enum PatientImportFormat {
+
+  CSV(new MediaType("text", "csv")), NDJSON(MediaType.APPLICATION_NDJSON);
+
+  private final MediaType mediaType;
+
+  PatientImportFormat(MediaType mediaType) {
+    this.mediaType = mediaType;
+  }
+
+  public static PatientImportFormat fromContentType(String contentType) {
+    MediaType requested = MediaType.parseMediaType(contentType);
+    for (PatientImportFormat format : values()) {
+      if (format.mediaType.isCompatibleWith(requested)) {
+        return format;
+      }
+    }
+    throw new InvalidRequestException(String.format("Unsupported import content type %s", contentType));
+  }
+}
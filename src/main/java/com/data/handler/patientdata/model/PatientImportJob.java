@@ -0,0 +1,66 @@
+package com.data.handler.patientdata.model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * Progress of a bulk patients import, updated concurrently by the stages of the import pipeline.
+ */
+@Getter
+public class PatientImportJob {
+
+  public enum Status {
+    RUNNING, COMPLETED, FAILED
+  }
+
+  private final String id;
+  private final PatientImportFormat format;
+  private final LocalDateTime startedAt = LocalDateTime.now();
+  private final AtomicLong rowsRead = new AtomicLong();
+  private final AtomicLong imported = new AtomicLong();
+  private final AtomicLong rejected = new AtomicLong();
+
+  /**
+   * Report of the rejected rows, capped so that a file full of invalid rows cannot exhaust the heap.
+   */
+  private final Queue<PatientImportRejection> rejections = new ConcurrentLinkedQueue<>();
+
+  private volatile Status status = Status.RUNNING;
+  private volatile LocalDateTime completedAt;
+  private volatile String failure;
+
+  @Getter(AccessLevel.NONE)
+  private final int maxReportedRejections;
+  @Getter(AccessLevel.NONE)
+  private final AtomicInteger reportedRejections = new AtomicInteger();
+
+  public PatientImportJob(String id, PatientImportFormat format, int maxReportedRejections) {
+    this.id = id;
+    this.format = format;
+    this.maxReportedRejections = maxReportedRejections;
+  }
+
+  public void reject(long line, List<String> messages) {
+    rejected.incrementAndGet();
+    if (reportedRejections.incrementAndGet() <= maxReportedRejections) {
+      rejections.add(new PatientImportRejection(line, messages));
+    }
+  }
+
+  public void complete() {
+    completedAt = LocalDateTime.now();
+    status = Status.COMPLETED;
+  }
+
+  public void fail(String failure) {
+    this.failure = failure;
+    completedAt = LocalDateTime.now();
+    status = Status.FAILED;
+  }
+}
@@ -0,0 +1,14 @@
+package com.data.handler.patientdata.model;
+
+import java.util.List;
+import lombok.Data;
+
+@Data
+public class PatientImportRejection {
+
+  /**
+   * Line of the imported file, starting at 1.
+   */
+  private final long line;
+  private final List<String> messages;
+}
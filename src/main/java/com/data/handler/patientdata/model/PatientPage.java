@@ -0,0 +1,15 @@
+package com.data.handler.patientdata.model;
+
+import java.util.List;
+import lombok.Data;
+
+@Data
+public class PatientPage {
+
+  private final List<PatientView> patients;
+
+  /**
+   * Opaque token pointing after the last patient of this page, null when there are no further pages.
+   */
+  private final String nextCursor;
+}
@@ -0,0 +1,25 @@
+package com.data.handler.patientdata.model;
+
+import com.data.handler.patientdata.Gender;
+import java.time.LocalDate;
+import lombok.Value;
+
+/**
+ * Read only copy of a patient, selected with a constructor expression by the list queries. Unlike {@link Patient} it is not
+ * managed by the persistence context, so no entity instance or dirty checking snapshot is kept per returned row.
+ */
+@Value
+public class PatientView {
+
+  Long id;
+  String firstName;
+  String lastName;
+  Gender gender;
+  LocalDate birthDay;
+  LocalDate createdOn;
+
+  public static PatientView of(Patient patient) {
+    return new PatientView(patient.getId(), patient.getFirstName(), patient.getLastName(), patient.getGender(),
+        patient.getBirthDay(), patient.getCreatedOn());
+  }
+}
@@ -0,0 +1,23 @@
+package com.data.handler.patientdata.model;
+
+import lombok.Value;
+
+/**
+ * Aggregates of the patient table that change whenever a patient is created or deleted, also by writes outside of the
+ * application. Patient ids are never reused, so a create moves the max id and a delete lowers the count, an update
+ * increments the version of the patient and is seen when it raises the highest version. The application itself never
+ * updates a patient.
+ */
+@Value
+public class PatientsFingerprint {
+
+  long count;
+  long maxId;
+  long maxVersion;
+
+  public PatientsFingerprint(Long count, Long maxId, Long maxVersion) {
+    this.count = count == null ? 0 : count;
+    this.maxId = maxId == null ? 0 : maxId;
+    this.maxVersion = maxVersion == null ? 0 : maxVersion;
+  }
+}
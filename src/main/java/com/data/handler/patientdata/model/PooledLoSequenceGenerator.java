@@ -0,0 +1,38 @@
+package com.data.handler.patientdata.model;
+
+import java.util.Properties;
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+/**
+ * Sequence generator of the entity ids with the pooled-lo optimizer: one sequence call reserves the block of ids starting at
+ * the returned value, the following ids of the block are handed out in memory. The block size is the allocation size
+ * setting, unless the mapping of the generator sets its own increment_size, and has to equal the increment of the
+ * database sequence (checked by hibernate at startup).
+ *
+ * <p>Used with {@code @GenericGenerator(strategy = "com.data.handler.patientdata.model.PooledLoSequenceGenerator")} and the
+ * sequence name as {@code sequence_name} parameter.
+ */
+public class PooledLoSequenceGenerator extends SequenceStyleGenerator {
+
+  /**
+   * Hibernate setting, set as spring.jpa.properties.patient.id.allocation_size
+   */
+  public static final String ALLOCATION_SIZE_SETTING = "patient.id.allocation_size";
+
+  public static final int DEFAULT_ALLOCATION_SIZE = 50;
+
+  @Override
+  public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+    if (!params.containsKey(INCREMENT_PARAM)) {
+      Object allocationSize = serviceRegistry.getService(ConfigurationService.class).getSettings().get(ALLOCATION_SIZE_SETTING);
+      params.setProperty(INCREMENT_PARAM, allocationSize == null ? String.valueOf(DEFAULT_ALLOCATION_SIZE) : allocationSize.toString());
+    }
+    params.setProperty(OPT_PARAM, StandardOptimizerDescriptor.POOLED_LO.getExternalName());
+    super.configure(type, params, serviceRegistry);
+  }
+}
@@ -0,0 +1,28 @@
+package com.data.handler.patientdata.model;
+
+import java.time.LocalDate;
+import java.util.List;
+import lombok.Value;
+
+/**
+ * Patients deleted by one chunk of the purge, in (createdOn, id) order. The last of them is the keyset position the next
+ * chunk starts after, so every chunk reads only its own rows from the (created_on, id) index.
+ */
+@Value
+public class PurgeChunk {
+
+  List<Long> ids;
+  LocalDate lastCreatedOn;
+
+  public Long getLastId() {
+    return ids.get(ids.size() - 1);
+  }
+
+  public int size() {
+    return ids.size();
+  }
+
+  public boolean isEmpty() {
+    return ids.isEmpty();
+  }
+}
@@ -1,21 +1,111 @@
 package com.data.handler.patientdata.repository;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
 import com.data.handler.patientdata.Gender;
 import com.data.handler.patientdata.model.Patient;
+import com.data.handler.patientdata.model.PatientView;
+import com.data.handler.patientdata.model.PatientsFingerprint;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface PatientRepository extends JpaRepository<Patient, Long>, PatientViewRepository {
 
-public interface PatientRepository extends JpaRepository<Patient, Long> {
+  /**
+   * Selects the patients as {@link PatientView}, which the persistence context does not track.
+   */
+  String SELECT_PATIENT_VIEW = "select new com.data.handler.patientdata.model.PatientView("
+      + "p.id, p.firstName, p.lastName, p.gender, p.birthDay, p.createdOn) from Patient p ";
 
   Optional<List<Patient>> findAllByOrderByLastNameAsc();
 
+  @Query(SELECT_PATIENT_VIEW + "order by p.lastName asc")
+  Optional<List<PatientView>> findAllViewsByOrderByLastNameAsc();
+
+  /**
+   * Forward only cursor over all patients, it has to be consumed and closed within a transaction. Rows are fetched from
+   * the database in chunks of the configured fetch size instead of being materialized in one list.
+   */
+  @QueryHints({
+      @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+      @QueryHint(name = HINT_READONLY, value = "true")})
+  @Query("select p from Patient p order by p.lastName asc, p.id asc")
+  Stream<Patient> streamAllByOrderByLastNameAsc();
+
+  /**
+   * Forward only cursor over all patients as {@link PatientView}, ordered by id. It has to be consumed and closed within a
+   * transaction.
+   */
+  @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+  @Query(SELECT_PATIENT_VIEW + "order by p.id asc")
+  Stream<PatientView> streamAllViews();
+
+  @Query(SELECT_PATIENT_VIEW + "where p.id in :ids order by p.lastName asc, p.id asc")
+  List<PatientView> findAllViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+  /**
+   * First page of the keyset pagination, only the page size of the pageable is expected to be used.
+   */
+  @Query(SELECT_PATIENT_VIEW + "order by p.lastName asc, p.id asc")
+  List<PatientView> findAllByOrderByLastNameAscIdAsc(Pageable pageable);
+
+  /**
+   * Seeks to the page following the given (lastName, id) position instead of skipping rows with an offset,
+   * so every page costs the same regardless of how deep the client reads.
+   */
+  @Query(SELECT_PATIENT_VIEW + "where p.lastName > :lastName or (p.lastName = :lastName and p.id > :id) "
+      + "order by p.lastName asc, p.id asc")
+  List<PatientView> findAllAfterOrderByLastNameAscIdAsc(@Param("lastName") String lastName, @Param("id") Long id, Pageable pageable);
+
   Optional<List<Patient>> findAllByGenderOrderByLastNameAsc(Gender gender);
 
   Optional<List<Patient>> findAllByFirstNameAndLastNameOrderByLastNameAsc(String firstName, String lastName);
 
+  /**
+   * Served from the query cache until the patient table is written again.
+   */
+  @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+  @Query(SELECT_PATIENT_VIEW + "where p.firstName = :firstName and p.lastName = :lastName order by p.lastName asc")
+  Optional<List<PatientView>> findAllViewsByFirstNameAndLastNameOrderByLastNameAsc(@Param("firstName") String firstName,
+                                                                                  @Param("lastName") String lastName);
+
+  /**
+   * Version of the patient without loading the entity, empty when there is no patient with the given id.
+   */
+  @Query("select p.version from Patient p where p.id = :id")
+  Optional<Long> findVersionById(@Param("id") Long id);
+
+  /**
+   * Answered from the indexes alone: the row count, the primary key and idx_patient_version, no row is read.
+   */
+  @Query("select new com.data.handler.patientdata.model.PatientsFingerprint(count(p), max(p.id), max(p.version)) from Patient p")
+  PatientsFingerprint findFingerprint();
+
   @Modifying
   void deleteAllByCreatedOnBefore(LocalDate createdAt);
+
+  /**
+   * Deletes the patients with a single DELETE statement, without loading them first. Hibernate can not tell which patients
+   * a bulk delete removes, it clears the whole patient region and the query regions of the second level cache after it.
+   * Worth it for many patients, a single patient is deleted through the session instead.
+   *
+   * @return number of deleted records, ids of non existing patients are not counted
+   */
+  @Modifying
+  @Transactional
+  @Query("delete from Patient p where p.id in :ids")
+  int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
 }
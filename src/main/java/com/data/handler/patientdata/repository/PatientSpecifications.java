@@ -0,0 +1,61 @@
+package com.data.handler.patientdata.repository;
+
+import com.data.handler.patientdata.model.Patient;
+import com.data.handler.patientdata.model.PatientCursor;
+import com.data.handler.patientdata.model.PatientFilter;
+import java.time.LocalDate;
+import javax.persistence.criteria.Path;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Specifications of the patient filters. They only compare columns to constants (equality, ranges and a prefix like),
+ * so the database can serve them from the gender/last name and last name/first name indexes.
+ */
+public final class PatientSpecifications {
+
+  private static final char LIKE_ESCAPE = '\\';
+
+  private PatientSpecifications() {
+  }
+
+  public static Specification<Patient> matching(PatientFilter filter) {
+    return Specification.where(hasGender(filter))
+        .and(between("birthDay", filter.getBirthDayFrom(), filter.getBirthDayTo()))
+        .and(between("createdOn", filter.getCreatedOnFrom(), filter.getCreatedOnTo()))
+        .and(lastNameStartsWith(filter.getLastNamePrefix()));
+  }
+
+  /**
+   * Keyset position of the pagination ordered by last name and id, see {@link PatientCursor}.
+   */
+  public static Specification<Patient> after(PatientCursor cursor) {
+    return (root, query, cb) -> cb.or(
+        cb.greaterThan(root.get("lastName"), cursor.getLastName()),
+        cb.and(cb.equal(root.get("lastName"), cursor.getLastName()), cb.greaterThan(root.get("id"), cursor.getId())));
+  }
+
+  private static Specification<Patient> hasGender(PatientFilter filter) {
+    return filter.getGender() == null ? null : (root, query, cb) -> cb.equal(root.get("gender"), filter.getGender());
+  }
+
+  private static Specification<Patient> between(String attribute, LocalDate from, LocalDate to) {
+    if (from == null && to == null) {
+      return null;
+    }
+    return (root, query, cb) -> {
+      Path<LocalDate> path = root.get(attribute);
+      if (from == null) {
+        return cb.lessThanOrEqualTo(path, to);
+      }
+      return to == null ? cb.greaterThanOrEqualTo(path, from) : cb.between(path, from, to);
+    };
+  }
+
+  private static Specification<Patient> lastNameStartsWith(String prefix) {
+    if (prefix == null || prefix.isEmpty()) {
+      return null;
+    }
+    String pattern = prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    return (root, query, cb) -> cb.like(root.get("lastName"), pattern, LIKE_ESCAPE);
+  }
+}
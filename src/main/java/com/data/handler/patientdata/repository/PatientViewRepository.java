@@ -0,0 +1,19 @@
+package com.data.handler.patientdata.repository;
+
+import com.data.handler.patientdata.model.Patient;
+import com.data.handler.patientdata.model.PatientView;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Specification queries returning {@link PatientView}, which {@code JpaSpecificationExecutor} can not project to.
+ */
+public interface PatientViewRepository {
+
+  /**
+   * Patients matching the specification ordered by last name and id, only the page size of the pageable is expected to
+   * be used.
+   */
+  List<PatientView> findAllViews(Specification<Patient> specification, Pageable pageable);
+}
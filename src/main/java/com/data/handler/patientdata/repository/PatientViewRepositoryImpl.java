@@ -0,0 +1,41 @@
+package com.data.handler.patientdata.repository;
+
+import com.data.handler.patientdata.model.Patient;
+import com.data.handler.patientdata.model.PatientView;
+import java.util.List;
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+@RequiredArgsConstructor
+class PatientViewRepositoryImpl implements PatientViewRepository {
+
+  private final EntityManager entityManager;
+
+  @Override
+  public List<PatientView> findAllViews(Specification<Patient> specification, Pageable pageable) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<PatientView> query = cb.createQuery(PatientView.class);
+    Root<Patient> root = query.from(Patient.class);
+    query.select(cb.construct(PatientView.class,
+        root.get("id"), root.get("firstName"), root.get("lastName"), root.get("gender"), root.get("birthDay"),
+        root.get("createdOn")));
+    Predicate predicate = specification == null ? null : specification.toPredicate(root, query, cb);
+    if (predicate != null) {
+      query.where(predicate);
+    }
+    query.orderBy(cb.asc(root.get("lastName")), cb.asc(root.get("id")));
+
+    TypedQuery<PatientView> typedQuery = entityManager.createQuery(query);
+    if (pageable.isPaged()) {
+      typedQuery.setMaxResults(pageable.getPageSize());
+    }
+    return typedQuery.getResultList();
+  }
+}
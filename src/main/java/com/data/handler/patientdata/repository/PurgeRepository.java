@@ -0,0 +1,76 @@
+package com.data.handler.patientdata.repository;
+
+import com.data.handler.patientdata.config.DataSourceConfig;
+import com.data.handler.patientdata.model.PurgeChunk;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Purge statements, run with plain JDBC on the dedicated purge connection pool. The transaction manager of this pool is
+ * not a bean, so the JPA transaction manager stays the only one of the application.
+ */
+@Repository
+public class PurgeRepository {
+
+  static final String SELECT_FIRST_CHUNK =
+      "select id, created_on from patient where created_on < ? order by created_on, id";
+
+  // expanded instead of a row value comparison, which MySQL does not always turn into an index range
+  static final String SELECT_NEXT_CHUNK = "select id, created_on from patient where created_on < ? "
+      + "and (created_on > ? or (created_on = ? and id > ?)) order by created_on, id";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  private final TransactionTemplate transactionTemplate;
+
+  public PurgeRepository(@Qualifier(DataSourceConfig.PURGE_DATA_SOURCE) DataSource purgeDataSource) {
+    this.jdbcTemplate = new JdbcTemplate(purgeDataSource);
+    this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(purgeDataSource));
+  }
+
+  /**
+   * Deletes the next chunk of patients created before the given date, in its own transaction. The chunk is read in
+   * (created_on, id) order from the position after the previous chunk, which the idx_patient_created_on_id index serves
+   * without a sort or a rescan of the rows already passed, and its ids are removed with a single DELETE statement.
+   *
+   * @param previous chunk deleted before, null for the first chunk of a purge
+   * @return the deleted patients, fewer than chunkSize once no older patients are left
+   */
+  public PurgeChunk deleteChunkCreatedBefore(LocalDate createdBefore, PurgeChunk previous, int chunkSize) {
+    return transactionTemplate.execute(status -> {
+      // the row limit is set on the statement, LIMIT and FETCH FIRST are not portable between the supported databases
+      List<Map.Entry<Long, LocalDate>> rows = jdbcTemplate.query(connection -> {
+        PreparedStatement statement;
+        if (previous == null) {
+          statement = connection.prepareStatement(SELECT_FIRST_CHUNK);
+        } else {
+          statement = connection.prepareStatement(SELECT_NEXT_CHUNK);
+          statement.setDate(2, Date.valueOf(previous.getLastCreatedOn()));
+          statement.setDate(3, Date.valueOf(previous.getLastCreatedOn()));
+          statement.setLong(4, previous.getLastId());
+        }
+        statement.setMaxRows(chunkSize);
+        statement.setDate(1, Date.valueOf(createdBefore));
+        return statement;
+      }, (resultSet, rowNum) -> Map.entry(resultSet.getLong(1), resultSet.getDate(2).toLocalDate()));
+      if (rows.isEmpty()) {
+        return new PurgeChunk(List.of(), null);
+      }
+      List<Long> ids = rows.stream().map(Map.Entry::getKey).collect(Collectors.toList());
+      String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+      jdbcTemplate.update("delete from patient where id in (" + placeholders + ")", ids.toArray());
+      return new PurgeChunk(ids, rows.get(rows.size() - 1).getValue());
+    });
+  }
+}
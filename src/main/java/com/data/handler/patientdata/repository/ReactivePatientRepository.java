@@ -0,0 +1,124 @@
+package com.data.handler.patientdata.repository;
+
+import static io.r2dbc.spi.ConnectionFactoryOptions.DATABASE;
+import static io.r2dbc.spi.ConnectionFactoryOptions.DRIVER;
+import static io.r2dbc.spi.ConnectionFactoryOptions.HOST;
+import static io.r2dbc.spi.ConnectionFactoryOptions.PASSWORD;
+import static io.r2dbc.spi.ConnectionFactoryOptions.PROTOCOL;
+import static io.r2dbc.spi.ConnectionFactoryOptions.USER;
+
+import com.data.handler.patientdata.Gender;
+import com.data.handler.patientdata.model.PatientView;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Row;
+import java.time.LocalDate;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+/**
+ * Non blocking counterpart of the list queries of {@link PatientRepository}, rows are read from the database as the
+ * subscriber requests them.
+ * <p>
+ * The R2DBC connection factory is owned by this repository instead of being a bean: Spring Boot does not configure the JDBC
+ * DataSource, and so JPA, when a ConnectionFactory bean exists. The application refuses to start when the R2DBC url
+ * points to another database than the JDBC DataSource, the reactive endpoints are disabled with
+ * patient.reactive.enabled=false.
+ */
+@Repository
+@ConditionalOnProperty(name = "patient.reactive.enabled", havingValue = "true")
+public class ReactivePatientRepository implements DisposableBean {
+
+  private static final String SELECT_PATIENT =
+      "select id, first_name, last_name, gender, birthday, created_on from patient ";
+
+  private final ConnectionFactory connectionFactory;
+
+  private final DatabaseClient databaseClient;
+
+  public ReactivePatientRepository(@Value("${patient.reactive.r2dbc.url}") String url,
+                                   @Value("${spring.datasource.url}") String jdbcUrl,
+                                   @Value("${spring.datasource.username}") String username,
+                                   @Value("${spring.datasource.password}") String password) {
+    ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url);
+    if (!databaseOf(options).equals(databaseOf(jdbcUrl))) {
+      throw new IllegalStateException(String.format("patient.reactive.r2dbc.url %s does not point to the database of "
+          + "spring.datasource.url %s, the reactive endpoints would read other patients", url, jdbcUrl));
+    }
+    this.connectionFactory = ConnectionFactories.get(options.mutate()
+        .option(USER, username)
+        .option(PASSWORD, password)
+        .build());
+    this.databaseClient = DatabaseClient.create(connectionFactory);
+  }
+
+  public Flux<PatientView> findAllByOrderByLastNameAsc() {
+    return databaseClient.sql(SELECT_PATIENT + "order by last_name asc, id asc")
+        .map((row, metadata) -> toPatientView(row))
+        .all();
+  }
+
+  public Flux<PatientView> findAllByGenderOrderByLastNameAsc(Gender gender) {
+    return databaseClient.sql(SELECT_PATIENT + "where gender = :gender order by last_name asc, id asc")
+        .bind("gender", gender.getGender())
+        .map((row, metadata) -> toPatientView(row))
+        .all();
+  }
+
+  @Override
+  public void destroy() {
+    if (connectionFactory instanceof Disposable) {
+      ((Disposable) connectionFactory).dispose();
+    }
+  }
+
+  /**
+   * Database an R2DBC url points to, as vendor:protocol//host/database. The port is left out, the JDBC urls often rely on
+   * the default port of the vendor.
+   */
+  static String databaseOf(ConnectionFactoryOptions options) {
+    String driver = (String) options.getRequiredValue(DRIVER);
+    String protocol = (String) options.getValue(PROTOCOL);
+    if ("pool".equals(driver)) {
+      // r2dbc:pool:<driver>[:<protocol>], the pooled driver is the first part of the protocol
+      int separatorIndex = protocol.indexOf(':');
+      driver = separatorIndex < 0 ? protocol : protocol.substring(0, separatorIndex);
+      protocol = separatorIndex < 0 ? null : protocol.substring(separatorIndex + 1);
+    }
+    String host = options.hasOption(HOST) ? (String) options.getValue(HOST) : "";
+    return driver + (protocol == null ? "" : ":" + protocol) + "//" + host + "/" + options.getValue(DATABASE);
+  }
+
+  /**
+   * Database a JDBC url points to, in the form of {@link #databaseOf(ConnectionFactoryOptions)}. Covers the url forms of
+   * the supported databases: jdbc:h2:mem:name, jdbc:h2:file:path and jdbc:vendor://host:port/database.
+   */
+  static String databaseOf(String jdbcUrl) {
+    String url = jdbcUrl.replaceFirst("^jdbc:", "").split("[;?]", 2)[0];
+    int authorityIndex = url.indexOf("://");
+    if (authorityIndex < 0) {
+      int databaseIndex = url.lastIndexOf(':');
+      return url.substring(0, databaseIndex) + "///" + url.substring(databaseIndex + 1);
+    }
+    String authorityAndDatabase = url.substring(authorityIndex + 3);
+    int databaseIndex = authorityAndDatabase.indexOf('/');
+    String host = authorityAndDatabase.substring(0, databaseIndex).split(":", 2)[0];
+    return url.substring(0, authorityIndex) + "//" + host + authorityAndDatabase.substring(databaseIndex);
+  }
+
+  private static PatientView toPatientView(Row row) {
+    return new PatientView(
+        row.get("id", Long.class),
+        row.get("first_name", String.class),
+        row.get("last_name", String.class),
+        Gender.fromGender(row.get("gender", String.class)),
+        row.get("birthday", LocalDate.class),
+        row.get("created_on", LocalDate.class));
+  }
+}
@@ -0,0 +1,330 @@
+package com.data.handler.patientdata.search;
+
+import com.data.handler.patientdata.event.PatientsCreatedEvent;
+import com.data.handler.patientdata.event.PatientsDeletedEvent;
+import com.data.handler.patientdata.model.Patient;
+import com.data.handler.patientdata.model.PatientView;
+import com.data.handler.patientdata.repository.PatientRepository;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * In memory index of the first and last names of all patients, serving prefix and typo tolerant name lookups without a
+ * database round trip. Names are split into lower case terms; a sorted map of the terms answers prefix lookups and a
+ * trigram index of the terms narrows the candidates of a typo tolerant lookup before their edit distance is computed.
+ * <p>
+ * The index is built when the application is ready and then follows the {@link PatientsCreatedEvent} and
+ * {@link PatientsDeletedEvent} once their transaction is committed.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PatientNameIndex {
+
+  private static final Pattern TERM_SEPARATOR = Pattern.compile("[\\s-]+");
+
+  private static final String TRIGRAM_PADDING = "$$";
+
+  private final PatientRepository patientRepository;
+
+  private final TransactionTemplate transactionTemplate;
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  private final NavigableMap<String, Set<Long>> idsByTerm = new TreeMap<>();
+
+  private final Map<String, Set<String>> termsByTrigram = new HashMap<>();
+
+  /**
+   * Terms of every indexed patient, so patients known by id only can be removed.
+   */
+  private final Map<Long, String[]> termsById = new HashMap<>();
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuild() {
+    long startedAt = System.nanoTime();
+    lock.writeLock().lock();
+    try {
+      idsByTerm.clear();
+      termsByTrigram.clear();
+      termsById.clear();
+      transactionTemplate.executeWithoutResult(status -> {
+        try (Stream<PatientView> patients = patientRepository.streamAllViews()) {
+          patients.forEach(patient -> add(patient.getId(), patient.getFirstName(), patient.getLastName()));
+        }
+      });
+    } finally {
+      lock.writeLock().unlock();
+    }
+    log.info("rebuild indexed the names of {} patients in {} ms", size(),
+        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onPatientsCreated(PatientsCreatedEvent event) {
+    lock.writeLock().lock();
+    try {
+      for (Patient patient : event.getPatients()) {
+        remove(patient.getId());
+        add(patient.getId(), patient.getFirstName(), patient.getLastName());
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onPatientsDeleted(PatientsDeletedEvent event) {
+    lock.writeLock().lock();
+    try {
+      event.getIds().forEach(this::remove);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Ids of the patients matching every blank separated part of the query, a part matches a patient when one of the terms of
+   * its first or last name starts with it.
+   * <p>
+   * Only the terms matching each part are collected. The ids are then read from the terms of the most selective part and
+   * the other parts are checked against the terms of each of these patients, so short parts matching most of the index
+   * never build a set of their ids and the search stops as soon as the limit is reached.
+   *
+   * @param query name parts, for ex: "chris schn"
+   * @param fuzzy when true a part also matches terms whose start differs from it by a few edits, one for parts up to five
+   *              characters and two for longer ones, parts shorter than three characters only match exactly
+   * @param limit maximum number of returned ids
+   * @return matching ids, in the order of the matched terms of the most selective part
+   */
+  public Set<Long> search(String query, boolean fuzzy, int limit) {
+    String[] parts = TERM_SEPARATOR.split(query.trim().toLowerCase(Locale.ROOT));
+    if (parts.length == 0 || parts[0].isEmpty()) {
+      return Collections.emptySet();
+    }
+    lock.readLock().lock();
+    try {
+      List<PartMatch> partMatches = new ArrayList<>(parts.length);
+      for (String part : parts) {
+        PartMatch partMatch = match(part, fuzzy);
+        if (partMatch.terms.isEmpty()) {
+          return Collections.emptySet();
+        }
+        partMatches.add(partMatch);
+      }
+      PartMatch selective = Collections.min(partMatches, Comparator.comparingLong(partMatch -> partMatch.estimatedIds));
+      partMatches.remove(selective);
+
+      Set<Long> ids = new LinkedHashSet<>();
+      for (String term : selective.terms) {
+        for (Long id : idsByTerm.get(term)) {
+          if (!ids.contains(id) && matchesAll(termsById.get(id), partMatches)) {
+            ids.add(id);
+            if (ids.size() >= limit) {
+              return ids;
+            }
+          }
+        }
+      }
+      return ids;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * @return number of indexed patients
+   */
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return termsById.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Terms matching the part, the terms starting with it in their sorted order followed by the terms within the edit
+   * distance of a fuzzy search.
+   */
+  private PartMatch match(String part, boolean fuzzy) {
+    PartMatch partMatch = new PartMatch(part);
+    idsByTerm.subMap(part, true, part + Character.MAX_VALUE, false).forEach(partMatch::addTerm);
+    int maxEdits = part.length() < 3 ? 0 : part.length() <= 5 ? 1 : 2;
+    if (!fuzzy || maxEdits == 0) {
+      return partMatch;
+    }
+
+    // every edit changes at most three trigrams, terms sharing fewer trigrams with the part are too far from it
+    Map<String, Integer> sharedTrigrams = new HashMap<>();
+    for (String trigram : trigrams(part)) {
+      for (String term : termsByTrigram.getOrDefault(trigram, Collections.emptySet())) {
+        sharedTrigrams.merge(term, 1, Integer::sum);
+      }
+    }
+    int minSharedTrigrams = Math.max(1, part.length() - 3 * maxEdits);
+    for (Map.Entry<String, Integer> candidate : sharedTrigrams.entrySet()) {
+      String term = candidate.getKey();
+      if (!term.startsWith(part) && candidate.getValue() >= minSharedTrigrams
+          && prefixEditDistance(part, term, maxEdits) <= maxEdits) {
+        partMatch.fuzzyTerms.add(term);
+        partMatch.addTerm(term, idsByTerm.get(term));
+      }
+    }
+    return partMatch;
+  }
+
+  private static boolean matchesAll(String[] patientTerms, List<PartMatch> partMatches) {
+    for (PartMatch partMatch : partMatches) {
+      boolean matched = false;
+      for (String term : patientTerms) {
+        if (partMatch.matches(term)) {
+          matched = true;
+          break;
+        }
+      }
+      if (!matched) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void add(Long id, String firstName, String lastName) {
+    Set<String> terms = new LinkedHashSet<>();
+    addTerms(terms, firstName);
+    addTerms(terms, lastName);
+    for (String term : terms) {
+      idsByTerm.computeIfAbsent(term, key -> {
+        for (String trigram : trigrams(key)) {
+          termsByTrigram.computeIfAbsent(trigram, k -> new HashSet<>()).add(key);
+        }
+        return new HashSet<>();
+      }).add(id);
+    }
+    termsById.put(id, terms.toArray(new String[0]));
+  }
+
+  private void remove(Long id) {
+    String[] terms = termsById.remove(id);
+    if (terms == null) {
+      return;
+    }
+    for (String term : terms) {
+      Set<Long> termIds = idsByTerm.get(term);
+      termIds.remove(id);
+      if (termIds.isEmpty()) {
+        idsByTerm.remove(term);
+        for (String trigram : trigrams(term)) {
+          Set<String> trigramTerms = termsByTrigram.get(trigram);
+          trigramTerms.remove(term);
+          if (trigramTerms.isEmpty()) {
+            termsByTrigram.remove(trigram);
+          }
+        }
+      }
+    }
+  }
+
+  private static void addTerms(Set<String> terms, String name) {
+    if (name == null) {
+      return;
+    }
+    for (String term : TERM_SEPARATOR.split(name.trim().toLowerCase(Locale.ROOT))) {
+      if (!term.isEmpty()) {
+        terms.add(term);
+      }
+    }
+  }
+
+  /**
+   * Trigrams of the term padded at its start only, so a prefix of a term shares all its trigrams with the term.
+   */
+  private static String[] trigrams(String term) {
+    String padded = TRIGRAM_PADDING + term;
+    String[] trigrams = new String[term.length()];
+    for (int i = 0; i < trigrams.length; i++) {
+      trigrams[i] = padded.substring(i, i + 3);
+    }
+    return trigrams;
+  }
+
+  /**
+   * Smallest edit distance between the part and a prefix of the term, computed row by row and abandoned as soon as it
+   * exceeds the maximum.
+   *
+   * @return the distance, or maxEdits + 1 when it is larger than maxEdits
+   */
+  static int prefixEditDistance(String part, String term, int maxEdits) {
+    int columns = Math.min(term.length(), part.length() + maxEdits);
+    int[] previous = new int[columns + 1];
+    int[] current = new int[columns + 1];
+    for (int j = 0; j <= columns; j++) {
+      previous[j] = j;
+    }
+    for (int i = 1; i <= part.length(); i++) {
+      current[0] = i;
+      int rowMin = i;
+      for (int j = 1; j <= columns; j++) {
+        int substitution = previous[j - 1] + (part.charAt(i - 1) == term.charAt(j - 1) ? 0 : 1);
+        current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+        rowMin = Math.min(rowMin, current[j]);
+      }
+      if (rowMin > maxEdits) {
+        return maxEdits + 1;
+      }
+      int[] swap = previous;
+      previous = current;
+      current = swap;
+    }
+    int distance = maxEdits + 1;
+    for (int j = Math.max(0, part.length() - maxEdits); j <= columns; j++) {
+      distance = Math.min(distance, previous[j]);
+    }
+    return distance;
+  }
+
+  /**
+   * Terms matching one part of a query, and the number of ids of these terms, an upper bound of the patients the part
+   * matches.
+   */
+  @RequiredArgsConstructor
+  private static class PartMatch {
+    private final String part;
+    private final List<String> terms = new ArrayList<>();
+    private final Set<String> fuzzyTerms = new HashSet<>();
+    private long estimatedIds;
+
+    private void addTerm(String term, Set<Long> termIds) {
+      terms.add(term);
+      estimatedIds += termIds.size();
+    }
+
+    private boolean matches(String term) {
+      return term.startsWith(part) || fuzzyTerms.contains(term);
+    }
+  }
+}
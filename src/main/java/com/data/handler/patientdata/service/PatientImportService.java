@@ -0,0 +1,14 @@
+package com.data.handler.patientdata.service;
+
+import com.data.handler.patientdata.model.PatientImportFormat;
+import com.data.handler.patientdata.model.PatientImportJob;
+import java.io.InputStream;
+import java.util.Optional;
+
+public interface PatientImportService {
+
+  PatientImportJob startImport(InputStream content, PatientImportFormat format);
+
+  Optional<PatientImportJob> findImportJob(String id);
+
+}
@@ -0,0 +1,389 @@
+package com.data.handler.patientdata.service;
+
+import com.data.handler.patientdata.Gender;
+import com.data.handler.patientdata.constraints.NewPatientValidator;
+import com.data.handler.patientdata.event.PatientsCreatedEvent;
+import com.data.handler.patientdata.exception.PayloadTooLargeException;
+import com.data.handler.patientdata.exception.ServiceUnavailableException;
+import com.data.handler.patientdata.model.Patient;
+import com.data.handler.patientdata.model.PatientImportFormat;
+import com.data.handler.patientdata.model.PatientImportJob;
+import com.data.handler.patientdata.repository.PatientRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Imports patient files of any size with bounded memory. The uploaded file is spooled to disk and then read by a pipeline of
+ * three stages, parser, validator and writer, connected by bounded queues, so a slow database throttles the parser instead
+ * of letting parsed rows pile up on the heap. The writer stores the rows in fixed size chunks, each in its own transaction,
+ * a chunk the database refuses is stored again row by row so that only its failing rows are rejected. Uploads larger than
+ * the maximum size are refused with {@link PayloadTooLargeException} and their partial copy is deleted.
+ * <p>
+ * A bounded number of imports run at the same time and a bounded number wait for them, further imports are refused with
+ * {@link ServiceUnavailableException}. Finished jobs are kept for the retention period, and up to a maximum number of them.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class PatientImportServiceImpl implements PatientImportService {
+
+  private static final ImportRow END_OF_ROWS = new ImportRow(-1, null);
+
+  private static final List<String> CSV_COLUMNS = List.of("firstname", "lastname", "gender", "birthday");
+
+  private final PatientRepository patientRepository;
+
+  private final TransactionTemplate transactionTemplate;
+
+  private final NewPatientValidator newPatientValidator;
+
+  private final ObjectMapper objectMapper;
+
+  private final ApplicationEventPublisher eventPublisher;
+
+  private final Map<String, PatientImportJob> jobs = new ConcurrentHashMap<>();
+
+  @Value("${patient.import.max.bytes}")
+  private long maxBytes;
+
+  @Value("${patient.import.chunk.size}")
+  private int chunkSize;
+
+  @Value("${patient.import.queue.capacity}")
+  private int queueCapacity;
+
+  @Value("${patient.import.rejections.max}")
+  private int maxReportedRejections;
+
+  @Value("${patient.import.jobs.concurrent}")
+  private int concurrentJobs;
+
+  @Value("${patient.import.jobs.queued}")
+  private int queuedJobs;
+
+  @Value("${patient.import.jobs.retention.hours}")
+  private long jobsRetentionHours;
+
+  @Value("${patient.import.jobs.retained.max}")
+  private int maxRetainedJobs;
+
+  private ThreadPoolExecutor jobExecutor;
+
+  @PostConstruct
+  void startJobExecutor() {
+    jobExecutor = new ThreadPoolExecutor(concurrentJobs, concurrentJobs, 0, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queuedJobs), new CustomizableThreadFactory("patient-import-job-"));
+  }
+
+  @PreDestroy
+  void stopJobExecutor() {
+    jobExecutor.shutdownNow();
+  }
+
+  @Override
+  public PatientImportJob startImport(InputStream content, PatientImportFormat format) {
+    // checked before the upload is spooled as well, a refused import should not cost a copy of its file
+    if (jobExecutor.getQueue().remainingCapacity() == 0) {
+      throw importsBusy();
+    }
+    PatientImportJob job = new PatientImportJob(UUID.randomUUID().toString(), format, maxReportedRejections);
+    Path file = spool(content);
+    jobs.put(job.getId(), job);
+    try {
+      jobExecutor.execute(() -> runPipeline(job, file));
+    } catch (RejectedExecutionException ex) {
+      jobs.remove(job.getId());
+      deleteSpooledFile(file);
+      throw importsBusy();
+    }
+    return job;
+  }
+
+  /**
+   * Removes the finished jobs older than the retention period, and the oldest finished jobs beyond the maximum number of
+   * retained jobs. Running and queued jobs are always kept, their number is bounded by the job executor.
+   */
+  @Scheduled(fixedDelayString = "${patient.import.jobs.expiry.interval.millis}")
+  public void expireFinishedJobs() {
+    LocalDateTime retainedSince = LocalDateTime.now().minusHours(jobsRetentionHours);
+    jobs.values().removeIf(job -> job.getCompletedAt() != null && job.getCompletedAt().isBefore(retainedSince));
+    List<PatientImportJob> finishedJobs = jobs.values().stream()
+        .filter(job -> job.getCompletedAt() != null)
+        .sorted(Comparator.comparing(PatientImportJob::getCompletedAt))
+        .collect(Collectors.toList());
+    finishedJobs.subList(0, Math.max(0, finishedJobs.size() - maxRetainedJobs))
+        .forEach(job -> jobs.remove(job.getId()));
+  }
+
+  @Override
+  public Optional<PatientImportJob> findImportJob(String id) {
+    return Optional.ofNullable(jobs.get(id));
+  }
+
+  private ServiceUnavailableException importsBusy() {
+    log.warn("importPatients refused an import, {} imports running and {} waiting", jobExecutor.getActiveCount(),
+        jobExecutor.getQueue().size());
+    return new ServiceUnavailableException("Too many imports in progress, retry later");
+  }
+
+  private Path spool(InputStream content) {
+    Path file;
+    try {
+      file = Files.createTempFile("patient-import-", ".tmp");
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+    try (OutputStream out = Files.newOutputStream(file)) {
+      byte[] buffer = new byte[8192];
+      long copied = 0;
+      for (int read = content.read(buffer); read >= 0; read = content.read(buffer)) {
+        copied += read;
+        if (copied > maxBytes) {
+          throw new PayloadTooLargeException(String.format("Import files are limited to %s bytes", maxBytes));
+        }
+        out.write(buffer, 0, read);
+      }
+      return file;
+    } catch (IOException ex) {
+      deleteSpooledFile(file);
+      throw new UncheckedIOException(ex);
+    } catch (RuntimeException ex) {
+      deleteSpooledFile(file);
+      throw ex;
+    }
+  }
+
+  private void runPipeline(PatientImportJob job, Path file) {
+    log.info("importPatients >> import {} of {} file started", job.getId(), job.getFormat());
+    BlockingQueue<ImportRow> parsedRows = new ArrayBlockingQueue<>(queueCapacity);
+    BlockingQueue<ImportRow> validRows = new ArrayBlockingQueue<>(queueCapacity);
+    ExecutorService stages = Executors.newFixedThreadPool(3, new CustomizableThreadFactory("patient-import-stage-"));
+    CompletionService<Void> completedStages = new ExecutorCompletionService<>(stages);
+    completedStages.submit(() -> parse(job, file, parsedRows));
+    completedStages.submit(() -> validate(job, parsedRows, validRows));
+    completedStages.submit(() -> write(job, validRows));
+    try {
+      for (int stage = 0; stage < 3; stage++) {
+        completedStages.take().get();
+      }
+      job.complete();
+    } catch (ExecutionException ex) {
+      log.error("importPatients import {} failed", job.getId(), ex.getCause());
+      job.fail(ex.getCause().getMessage());
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      job.fail("Import interrupted");
+    } finally {
+      // a failed stage would leave the others blocked on their queues
+      stages.shutdownNow();
+      deleteSpooledFile(file);
+    }
+    log.info("importPatients << import {} {}, {} rows imported and {} rejected", job.getId(), job.getStatus(),
+        job.getImported(), job.getRejected());
+  }
+
+  private Void parse(PatientImportJob job, Path file, BlockingQueue<ImportRow> parsedRows) throws IOException, InterruptedException {
+    try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+      int[] csvColumns = job.getFormat() == PatientImportFormat.CSV ? readCsvHeader(reader.readLine()) : null;
+      long line = csvColumns == null ? 0 : 1;
+      String text;
+      while ((text = reader.readLine()) != null) {
+        line++;
+        if (text.isBlank()) {
+          continue;
+        }
+        job.getRowsRead().incrementAndGet();
+        try {
+          Patient patient = csvColumns == null ? objectMapper.readValue(text, Patient.class) : fromCsv(csvColumns, text);
+          parsedRows.put(new ImportRow(line, patient));
+        } catch (JsonProcessingException ex) {
+          job.reject(line, List.of("Unparsable row: " + ex.getOriginalMessage()));
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+          job.reject(line, List.of("Unparsable row: " + ex.getMessage()));
+        }
+      }
+    }
+    parsedRows.put(END_OF_ROWS);
+    return null;
+  }
+
+  private Void validate(PatientImportJob job, BlockingQueue<ImportRow> parsedRows, BlockingQueue<ImportRow> validRows)
+      throws InterruptedException {
+    for (ImportRow row = parsedRows.take(); row != END_OF_ROWS; row = parsedRows.take()) {
+      List<String> violations = newPatientValidator.validate(row.getPatient());
+      if (violations.isEmpty()) {
+        validRows.put(row);
+      } else {
+        job.reject(row.getLine(), violations);
+      }
+    }
+    validRows.put(END_OF_ROWS);
+    return null;
+  }
+
+  private Void write(PatientImportJob job, BlockingQueue<ImportRow> validRows) throws InterruptedException {
+    List<ImportRow> chunk = new ArrayList<>(chunkSize);
+    for (ImportRow row = validRows.take(); row != END_OF_ROWS; row = validRows.take()) {
+      chunk.add(row);
+      if (chunk.size() == chunkSize) {
+        writeChunk(job, chunk);
+        chunk.clear();
+      }
+    }
+    if (!chunk.isEmpty()) {
+      writeChunk(job, chunk);
+    }
+    return null;
+  }
+
+  private void writeChunk(PatientImportJob job, List<ImportRow> chunk) {
+    List<Patient> patients = chunk.stream().map(ImportRow::getPatient).collect(Collectors.toList());
+    try {
+      store(patients);
+      job.getImported().addAndGet(chunk.size());
+    } catch (DataAccessException ex) {
+      log.warn("importPatients import {} stores a refused chunk of {} rows row by row: {}", job.getId(), chunk.size(),
+          ex.getMostSpecificCause().getMessage());
+      chunk.forEach(row -> writeRow(job, row));
+    }
+  }
+
+  private void writeRow(PatientImportJob job, ImportRow row) {
+    Patient patient = row.getPatient();
+    // the rolled back chunk left the id and version it had assigned on the patient
+    patient.setId(null);
+    patient.setVersion(null);
+    try {
+      store(List.of(patient));
+      job.getImported().incrementAndGet();
+    } catch (DataAccessException ex) {
+      job.reject(row.getLine(), List.of("Not stored: " + ex.getMostSpecificCause().getMessage()));
+    }
+  }
+
+  private void store(List<Patient> patients) {
+    transactionTemplate.executeWithoutResult(status -> {
+      patientRepository.saveAll(patients);
+      eventPublisher.publishEvent(new PatientsCreatedEvent(patients));
+    });
+  }
+
+  /**
+   * @return for each of the {@link #CSV_COLUMNS} its position within the header
+   */
+  private int[] readCsvHeader(String header) {
+    List<String> columns = header == null ? List.of()
+        : splitCsvLine(header).stream().map(column -> column.trim().toLowerCase(Locale.ROOT)).collect(Collectors.toList());
+    int[] positions = new int[CSV_COLUMNS.size()];
+    for (int i = 0; i < positions.length; i++) {
+      positions[i] = columns.indexOf(CSV_COLUMNS.get(i));
+      if (positions[i] < 0) {
+        throw new IllegalStateException("CSV header should contain the columns firstName, lastName, gender and birthDay");
+      }
+    }
+    return positions;
+  }
+
+  private Patient fromCsv(int[] csvColumns, String text) {
+    List<String> values = splitCsvLine(text);
+    if (values.size() <= Math.max(Math.max(csvColumns[0], csvColumns[1]), Math.max(csvColumns[2], csvColumns[3]))) {
+      throw new IllegalArgumentException("missing columns");
+    }
+    String gender = values.get(csvColumns[2]).trim();
+    String birthDay = values.get(csvColumns[3]).trim();
+    return Patient.builder()
+        .firstName(values.get(csvColumns[0]).trim())
+        .lastName(values.get(csvColumns[1]).trim())
+        .gender(gender.isEmpty() ? null : Gender.fromGender(gender))
+        .birthDay(birthDay.isEmpty() ? null : LocalDate.parse(birthDay))
+        .build();
+  }
+
+  /**
+   * Splits a RFC 4180 line, values may be enclosed in double quotes and quotes within them are escaped by doubling them.
+   */
+  private static List<String> splitCsvLine(String line) {
+    List<String> values = new ArrayList<>();
+    StringBuilder value = new StringBuilder();
+    boolean quoted = false;
+    for (int i = 0; i < line.length(); i++) {
+      char c = line.charAt(i);
+      if (quoted) {
+        if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+          value.append('"');
+          i++;
+        } else if (c == '"') {
+          quoted = false;
+        } else {
+          value.append(c);
+        }
+      } else if (c == '"') {
+        quoted = true;
+      } else if (c == ',') {
+        values.add(value.toString());
+        value.setLength(0);
+      } else {
+        value.append(c);
+      }
+    }
+    values.add(value.toString());
+    return values;
+  }
+
+  private void deleteSpooledFile(Path file) {
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException ex) {
+      log.warn("importPatients could not delete spooled file {}", file, ex);
+    }
+  }
+
+  @Getter
+  @RequiredArgsConstructor
+  private static class ImportRow {
+    private final long line;
+    private final Patient patient;
+  }
+}
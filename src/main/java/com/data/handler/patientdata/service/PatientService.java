@@ -1,21 +1,76 @@
 package com.data.handler.patientdata.service;
 
 import com.data.handler.patientdata.model.Patient;
+import com.data.handler.patientdata.model.PatientBatchResult;
+import com.data.handler.patientdata.model.PatientFilter;
+import com.data.handler.patientdata.model.PatientPage;
+import com.data.handler.patientdata.model.PatientView;
+import com.data.handler.patientdata.model.PatientsFingerprint;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface PatientService {
 
-  Optional<List<Patient>> getAllPatientsOrderByLastNameAsc();
+  /**
+   * Cache of the patients looked up by id.
+   */
+  String PATIENTS_CACHE = "patients";
+
+  Optional<List<PatientView>> getAllPatientsOrderByLastNameAsc();
+
+  PatientPage getPatientsPageOrderByLastNameAsc(String cursor, int size);
+
+  long exportPatientsOrderByLastNameAsc(Consumer<Patient> consumer);
 
   Optional<Patient> findPatientById(Long id);
 
-  Optional<List<Patient>> findPatientByFirstNameAndLastName(String firstName, String lastName);
+  /**
+   * Version of the patient, read from the patients cache or selected without loading the patient.
+   *
+   * @return empty when there is no patient with the given id
+   */
+  Optional<Long> findPatientVersionById(Long id);
+
+  /**
+   * Fingerprint of all patients, it changes whenever a patient is created or deleted, whichever application or instance
+   * wrote the database.
+   */
+  PatientsFingerprint getPatientsFingerprint();
+
+  Optional<List<PatientView>> findPatientByFirstNameAndLastName(String firstName, String lastName);
+
+  /**
+   * Patients whose first or last name start with every blank separated part of the name, ordered by last name.
+   *
+   * @param fuzzy when true the parts also match names with a few typos
+   */
+  List<PatientView> searchPatientsByName(String name, boolean fuzzy, int limit);
 
   Patient createPatient(Patient patient);
 
-  Optional<List<Patient>> getListOfFemalePatients();
+  PatientBatchResult createPatients(List<Patient> patients);
+
+  Optional<List<PatientView>> getListOfFemalePatients();
+
+  /**
+   * Page of the patients matching the filter, ordered by last name like {@link #getPatientsPageOrderByLastNameAsc}.
+   *
+   * @throws com.data.handler.patientdata.exception.InvalidRequestException when a range of the filter ends before it starts
+   */
+  PatientPage filterPatients(PatientFilter filter, String cursor, int size);
 
   void deletePatient(Patient patient);
 
+  /**
+   * @return true when a patient with the given id existed and was deleted
+   */
+  boolean deletePatientById(Long id);
+
+  /**
+   * @return number of deleted patients, ids of non existing patients are ignored
+   */
+  int deletePatientsByIds(Collection<Long> ids);
+
 }
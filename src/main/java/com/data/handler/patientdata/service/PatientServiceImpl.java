@@ -1,68 +1,338 @@
 package com.data.handler.patientdata.service;
 
 import com.data.handler.patientdata.Gender;
+import com.data.handler.patientdata.constraints.NewPatientValidator;
+import com.data.handler.patientdata.event.PatientsCreatedEvent;
+import com.data.handler.patientdata.event.PatientsDeletedEvent;
+import com.data.handler.patientdata.exception.InvalidRequestException;
 import com.data.handler.patientdata.model.Patient;
+import com.data.handler.patientdata.model.PatientBatchItemResult;
+import com.data.handler.patientdata.model.PatientBatchResult;
+import com.data.handler.patientdata.model.PatientCursor;
+import com.data.handler.patientdata.model.PatientFilter;
+import com.data.handler.patientdata.model.PatientPage;
+import com.data.handler.patientdata.model.PatientView;
+import com.data.handler.patientdata.model.PatientsFingerprint;
 import com.data.handler.patientdata.repository.PatientRepository;
+import com.data.handler.patientdata.repository.PatientSpecifications;
+import com.data.handler.patientdata.search.PatientNameIndex;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
-import lombok.AllArgsConstructor;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @Slf4j
-@AllArgsConstructor
+@RequiredArgsConstructor
 public class PatientServiceImpl implements PatientService {
 
+  static final String SERVICE_TIMER = "patient.service";
+
+  static final String RESULT_SIZE_SUMMARY = "patient.service.results";
+
   private final PatientRepository patientRepository;
 
+  private final EntityManager entityManager;
+
+  private final NewPatientValidator newPatientValidator;
+
+  private final CacheManager cacheManager;
+
+  private final MeterRegistry meterRegistry;
+
+  private final PatientNameIndex patientNameIndex;
+
+  private final ApplicationEventPublisher eventPublisher;
+
+  @Value("${patient.batch.max.size}")
+  private int batchMaxSize;
+
+  @Value("${spring.jpa.properties.hibernate.jdbc.batch_size}")
+  private int jdbcBatchSize;
+
+  @Value("${patient.export.clear.interval}")
+  private int exportClearInterval;
+
   @Override
-  public Optional<List<Patient>> getAllPatientsOrderByLastNameAsc() {
-    log.info("getAllPatients >> Fetching list of all patients started");
-    Optional<List<Patient>> patients = patientRepository.findAllByOrderByLastNameAsc();
-    log.info("getAllPatients << Fetching list of all patients completed");
+  @Timed(SERVICE_TIMER)
+  @Transactional(readOnly = true)
+  public Optional<List<PatientView>> getAllPatientsOrderByLastNameAsc() {
+    log.debug("getAllPatients >> Fetching list of all patients started");
+    Optional<List<PatientView>> patients = patientRepository.findAllViewsByOrderByLastNameAsc();
+    recordResultSize("getAllPatients", patients);
+    log.debug("getAllPatients << Fetching list of all patients completed");
     return patients;
   }
 
   @Override
-  public Optional<List<Patient>> getListOfFemalePatients() {
-    log.info("getListOfFemalePatients >> Fetching list of Female patients started");
-    Optional<List<Patient>> patients = patientRepository.findAllByGenderOrderByLastNameAsc(Gender.FEMALE);
-    log.info("getListOfFemalePatients << Fetching list of Female patients completed");
+  @Timed(SERVICE_TIMER)
+  @Transactional(readOnly = true)
+  public PatientPage getPatientsPageOrderByLastNameAsc(String cursor, int size) {
+    log.debug("getPatientsPage >> Fetching page of {} patients started", size);
+    // one extra row tells whether a next page exists without issuing a count query
+    PageRequest pageRequest = PageRequest.of(0, size + 1);
+    List<PatientView> patients;
+    if (cursor == null) {
+      patients = patientRepository.findAllByOrderByLastNameAscIdAsc(pageRequest);
+    } else {
+      PatientCursor position = PatientCursor.decode(cursor);
+      patients = patientRepository.findAllAfterOrderByLastNameAscIdAsc(position.getLastName(), position.getId(), pageRequest);
+    }
+
+    String nextCursor = null;
+    if (patients.size() > size) {
+      patients = patients.subList(0, size);
+      nextCursor = PatientCursor.of(patients.get(size - 1)).encode();
+    }
+    recordResultSize("getPatientsPage", patients.size());
+    log.debug("getPatientsPage << Fetching page of {} patients completed", size);
+    return new PatientPage(patients, nextCursor);
+  }
+
+  @Override
+  @Timed(SERVICE_TIMER)
+  @Transactional(readOnly = true)
+  public long exportPatientsOrderByLastNameAsc(Consumer<Patient> consumer) {
+    log.debug("exportPatients >> Exporting all patients started");
+    long exported = 0;
+    // the exported patients are neither read from nor put in the second level cache, an export would otherwise evict the
+    // frequently read patients. The cache mode of a query is not applied to the rows of a stream, the one of the session is
+    entityManager.unwrap(Session.class).setCacheMode(CacheMode.IGNORE);
+    try (Stream<Patient> patients = patientRepository.streamAllByOrderByLastNameAsc()) {
+      for (Patient patient : (Iterable<Patient>) patients::iterator) {
+        consumer.accept(patient);
+        // already written entities are dropped from the persistence context so it does not grow with the table
+        if (++exported % exportClearInterval == 0) {
+          entityManager.clear();
+        }
+      }
+    }
+    recordResultSize("exportPatients", exported);
+    log.debug("exportPatients << Exporting {} patients completed", exported);
+    return exported;
+  }
+
+  @Override
+  @Timed(SERVICE_TIMER)
+  @Transactional(readOnly = true)
+  public Optional<List<PatientView>> getListOfFemalePatients() {
+    log.debug("getListOfFemalePatients >> Fetching list of Female patients started");
+    Optional<List<PatientView>> patients = Optional.of(patientRepository.findAllViews(
+        PatientSpecifications.matching(PatientFilter.builder().gender(Gender.FEMALE).build()), Pageable.unpaged()));
+    recordResultSize("getListOfFemalePatients", patients);
+    log.debug("getListOfFemalePatients << Fetching list of Female patients completed");
     return patients;
   }
 
   @Override
+  @Timed(SERVICE_TIMER)
+  @Transactional(readOnly = true)
+  public PatientPage filterPatients(PatientFilter filter, String cursor, int size) {
+    checkRange("birthDay", filter.getBirthDayFrom(), filter.getBirthDayTo());
+    checkRange("createdOn", filter.getCreatedOnFrom(), filter.getCreatedOnTo());
+    log.debug("filterPatients >> Fetching page of {} filtered patients started", size);
+    Specification<Patient> specification = PatientSpecifications.matching(filter);
+    if (cursor != null) {
+      specification = specification.and(PatientSpecifications.after(PatientCursor.decode(cursor)));
+    }
+    // one extra row tells whether a next page exists without issuing a count query
+    List<PatientView> patients = patientRepository.findAllViews(specification, PageRequest.of(0, size + 1));
+
+    String nextCursor = null;
+    if (patients.size() > size) {
+      patients = patients.subList(0, size);
+      nextCursor = PatientCursor.of(patients.get(size - 1)).encode();
+    }
+    recordResultSize("filterPatients", patients.size());
+    log.debug("filterPatients << Fetching page of {} filtered patients completed", size);
+    return new PatientPage(patients, nextCursor);
+  }
+
+  @Override
+  @Timed(SERVICE_TIMER)
+  @Cacheable(cacheNames = PATIENTS_CACHE, key = "#id", unless = "#result == null")
   public Optional<Patient> findPatientById(Long id) {
-    log.info("findPatientById >> find patient by id {} started", id);
+    log.debug("findPatientById >> find patient by id {} started", id);
     Optional<Patient> patient = patientRepository.findById(id);
-    log.info("findPatientById << find patient by id {} completed", id);
+    log.debug("findPatientById << find patient by id {} completed", id);
     return patient;
   }
 
-  public Optional<List<Patient>> findPatientByFirstNameAndLastName(String firstName, String lastName) {
-    log.info("findPatientByFirstNameAndLastName >> finding patient with firstName {} and lastName {} started", firstName, lastName);
-    Optional<List<Patient>> patients = patientRepository.findAllByFirstNameAndLastNameOrderByLastNameAsc(firstName, lastName);
-    log.info("findPatientByFirstNameAndLastName << finding patient with firstName {} and lastName {} completed", firstName, lastName);
+  @Override
+  @Timed(SERVICE_TIMER)
+  public Optional<Long> findPatientVersionById(Long id) {
+    Cache patientsCache = cacheManager.getCache(PATIENTS_CACHE);
+    Patient cached = patientsCache == null ? null : patientsCache.get(id, Patient.class);
+    if (cached != null) {
+      return Optional.ofNullable(cached.getVersion());
+    }
+    log.debug("findPatientVersionById >> find version of patient by id {} started", id);
+    Optional<Long> version = patientRepository.findVersionById(id);
+    log.debug("findPatientVersionById << find version of patient by id {} completed", id);
+    return version;
+  }
+
+  @Override
+  @Timed(SERVICE_TIMER)
+  public PatientsFingerprint getPatientsFingerprint() {
+    return patientRepository.findFingerprint();
+  }
+
+  @Override
+  @Timed(SERVICE_TIMER)
+  @Transactional(readOnly = true)
+  public Optional<List<PatientView>> findPatientByFirstNameAndLastName(String firstName, String lastName) {
+    log.debug("findPatientByFirstNameAndLastName >> finding patient by first and last name started");
+    Optional<List<PatientView>> patients = patientRepository.findAllViewsByFirstNameAndLastNameOrderByLastNameAsc(firstName, lastName);
+    recordResultSize("findPatientByFirstNameAndLastName", patients);
+    log.debug("findPatientByFirstNameAndLastName << finding patient by first and last name completed");
+    return patients;
+  }
+
+  @Override
+  @Timed(SERVICE_TIMER)
+  @Transactional(readOnly = true)
+  public List<PatientView> searchPatientsByName(String name, boolean fuzzy, int limit) {
+    log.debug("searchPatientsByName >> searching up to {} patients by name started", limit);
+    Set<Long> ids = patientNameIndex.search(name, fuzzy, limit);
+    List<PatientView> patients = ids.isEmpty() ? List.of() : patientRepository.findAllViewsByIdIn(ids);
+    recordResultSize("searchPatientsByName", patients.size());
+    log.debug("searchPatientsByName << searching up to {} patients by name completed", limit);
     return patients;
   }
 
   @Override
+  @Timed(SERVICE_TIMER)
+  @CachePut(cacheNames = PATIENTS_CACHE, key = "#result.id")
   public Patient createPatient(Patient patient) {
-    log.info("createPatient >> creating patient record for {}-{} started",patient.getFirstName(), patient.getLastName());
+    log.debug("createPatient >> creating patient record started");
     Patient patientCreated = patientRepository.save(patient);
-    log.info("createPatient << creating patient record for {}-{} completed",patient.getFirstName(), patient.getLastName());
+    eventPublisher.publishEvent(new PatientsCreatedEvent(List.of(patientCreated)));
+    log.debug("createPatient << creating patient record with id {} completed", patientCreated.getId());
     return patientCreated;
   }
 
   @Override
+  @Timed(SERVICE_TIMER)
+  @Transactional
+  public PatientBatchResult createPatients(List<Patient> patients) {
+    if (patients.isEmpty() || patients.size() > batchMaxSize) {
+      throw new InvalidRequestException(String.format("Number of patients should be between 1 and %s", batchMaxSize));
+    }
+    log.debug("createPatients >> creating {} patient records started", patients.size());
+
+    // the whole list is validated before the first insert, so a late invalid record does not waste the work done before it
+    List<List<String>> violationsByIndex = patients.stream().map(newPatientValidator::validate).collect(Collectors.toList());
+
+    List<PatientBatchItemResult> items = new ArrayList<>(patients.size());
+    List<Patient> createdPatients = new ArrayList<>(patients.size());
+    int created = 0;
+    for (int index = 0; index < patients.size(); index++) {
+      List<String> violations = violationsByIndex.get(index);
+      if (!violations.isEmpty()) {
+        items.add(new PatientBatchItemResult(index, null, PatientBatchItemResult.Status.REJECTED, violations));
+        continue;
+      }
+      Patient patient = patientRepository.save(patients.get(index));
+      createdPatients.add(patient);
+      items.add(new PatientBatchItemResult(index, patient.getId(), PatientBatchItemResult.Status.CREATED, List.of()));
+      // every full JDBC batch is sent and detached, which keeps the persistence context at most one batch large
+      if (++created % jdbcBatchSize == 0) {
+        entityManager.flush();
+        entityManager.clear();
+      }
+    }
+    eventPublisher.publishEvent(new PatientsCreatedEvent(createdPatients));
+    log.debug("createPatients << creating {} of {} patient records completed", created, patients.size());
+    return new PatientBatchResult(created, patients.size() - created, items);
+  }
+
+  @Override
+  @Timed(SERVICE_TIMER)
+  @CacheEvict(cacheNames = PATIENTS_CACHE, key = "#patient.id")
   public void deletePatient(Patient patient) {
-    log.info("deletePatient >> deleting patient record for {}-{} started",patient.getFirstName(), patient.getLastName());
+    log.debug("deletePatient >> deleting patient record with id {} started", patient.getId());
     patientRepository.delete(patient);
-    log.info("deletePatient << deleting patient record completed");
+    eventPublisher.publishEvent(new PatientsDeletedEvent(List.of(patient.getId())));
+    log.debug("deletePatient << deleting patient record completed");
+  }
+
+  @Override
+  @Timed(SERVICE_TIMER)
+  @CacheEvict(cacheNames = PATIENTS_CACHE, key = "#id")
+  public boolean deletePatientById(Long id) {
+    log.debug("deletePatientById >> deleting patient record with id {} started", id);
+    // deleted through the session, hibernate evicts only this patient from the second level cache and the lookup is
+    // usually served by it. A JPQL delete would clear the whole patient region and every query region
+    Optional<Patient> patient = patientRepository.findById(id);
+    patient.ifPresent(patientRepository::delete);
+    boolean deleted = patient.isPresent();
+    if (deleted) {
+      eventPublisher.publishEvent(new PatientsDeletedEvent(List.of(id)));
+    }
+    log.debug("deletePatientById << deleting patient record with id {} completed, deleted: {}", id, deleted);
+    return deleted;
+  }
+
+  @Override
+  @Timed(SERVICE_TIMER)
+  public int deletePatientsByIds(Collection<Long> ids) {
+    if (ids.isEmpty() || ids.size() > batchMaxSize) {
+      throw new InvalidRequestException(String.format("Number of patients should be between 1 and %s", batchMaxSize));
+    }
+    log.debug("deletePatientsByIds >> deleting {} patient records started", ids.size());
+    int deleted = patientRepository.deleteAllByIdIn(ids);
+    Cache patientsCache = cacheManager.getCache(PATIENTS_CACHE);
+    if (patientsCache != null) {
+      ids.forEach(patientsCache::evict);
+    }
+    eventPublisher.publishEvent(new PatientsDeletedEvent(ids));
+    log.debug("deletePatientsByIds << deleting {} patient records completed, deleted: {}", ids.size(), deleted);
+    return deleted;
+  }
+
+  private void recordResultSize(String method, Optional<? extends List<?>> patients) {
+    recordResultSize(method, patients.map(List::size).orElse(0));
   }
 
+  private void recordResultSize(String method, long size) {
+    DistributionSummary.builder(RESULT_SIZE_SUMMARY)
+        .description("Number of patients returned by the list operations")
+        .baseUnit("patients")
+        .tag("method", method)
+        .register(meterRegistry)
+        .record(size);
+  }
 
+  private static void checkRange(String attribute, LocalDate from, LocalDate to) {
+    if (from != null && to != null && from.isAfter(to)) {
+      throw new InvalidRequestException(String.format("%sFrom %s must not be after %sTo %s", attribute, from, attribute, to));
+    }
+  }
 }
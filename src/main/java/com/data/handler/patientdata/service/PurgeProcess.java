@@ -1,12 +1,24 @@
 package com.data.handler.patientdata.service;
 
-import com.data.handler.patientdata.repository.PatientRepository;
+import com.data.handler.patientdata.event.PatientsDeletedEvent;
+import com.data.handler.patientdata.model.Patient;
+import com.data.handler.patientdata.model.PurgeChunk;
+import com.data.handler.patientdata.repository.PurgeRepository;
+import com.data.handler.patientdata.util.PatientUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import java.time.LocalDate;
-import lombok.AllArgsConstructor;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Required;
+import org.hibernate.SessionFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
@@ -15,17 +27,99 @@ import org.springframework.stereotype.Component;
 @Component
 public class PurgeProcess {
 
-  private final PatientRepository patientRepository;
+  static final String PURGE_TIMER = "patient.purge";
+
+  static final String PURGED_RECORDS_COUNTER = "patient.purge.records";
+
+  private final PurgeRepository purgeRepository;
+
+  private final CacheManager cacheManager;
+
+  private final EntityManagerFactory entityManagerFactory;
+
+  private final MeterRegistry meterRegistry;
+
+  private final ApplicationEventPublisher eventPublisher;
 
   @Value("${patient.records.retention.years}")
   private String patientRecordsRetentionPeriodInYears;
 
+  @Value("${patient.records.purge.chunk.size}")
+  private int purgeChunkSize;
+
+  @Value("${patient.records.purge.chunk.pause.millis}")
+  private long purgeChunkPauseMillis;
+
   @Scheduled(cron = "${app.config.schedule.time}")
   public void deleteOlderPatientRecords() {
     long retentionPeriodInYears = Long.parseLong(patientRecordsRetentionPeriodInYears);
 
     log.info("deleteOlderPatientRecords >> Deleting records older than {} years started", retentionPeriodInYears);
-    patientRepository.deleteAllByCreatedOnBefore(LocalDate.now().minusYears(retentionPeriodInYears));
+    purgePatientRecordsCreatedBefore(PatientUtil.getCurrentDate().minusYears(retentionPeriodInYears));
     log.info("deleteOlderPatientRecords << Deleting records older than {} years completed", retentionPeriodInYears);
   }
+
+  /**
+   * Deletes the patients created before the given date chunk by chunk. Every chunk starts after the (createdOn, id)
+   * position of the previous one, is removed with a single DELETE statement of its ids and committed in its own
+   * transaction, so neither the heap, the held locks nor the rows read per chunk grow with the number of purged records.
+   *
+   * @param createdBefore records created before this date are deleted
+   * @return number of deleted records
+   */
+  public long purgePatientRecordsCreatedBefore(LocalDate createdBefore) {
+    Timer.Sample sample = Timer.start(meterRegistry);
+    long purged = 0;
+    PurgeChunk chunk = null;
+    do {
+      chunk = purgeRepository.deleteChunkCreatedBefore(createdBefore, chunk, purgeChunkSize);
+      // evicted only once committed, a concurrent lookup could otherwise cache the rows again before they are gone
+      evictFromCache(chunk.getIds());
+      if (!chunk.isEmpty()) {
+        eventPublisher.publishEvent(new PatientsDeletedEvent(chunk.getIds()));
+      }
+      purged += chunk.size();
+    } while (chunk.size() == purgeChunkSize && pauseBetweenChunks());
+
+    long elapsedNanos = sample.stop(Timer.builder(PURGE_TIMER)
+        .description("Duration of the purges of the older patient records")
+        .register(meterRegistry));
+    Counter.builder(PURGED_RECORDS_COUNTER)
+        .description("Number of purged patient records")
+        .baseUnit("records")
+        .register(meterRegistry)
+        .increment(purged);
+
+    long elapsedMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+    log.info("purgePatientRecords purged {} records created before {} in {} ms ({} records/s)",
+        purged, createdBefore, elapsedMillis, purged * 1000 / elapsedMillis);
+    return purged;
+  }
+
+  /**
+   * The chunks are deleted with plain JDBC, which hibernate does not see, so the purged patients and the cached query
+   * results are evicted from the second level cache here.
+   */
+  private void evictFromCache(List<Long> ids) {
+    Cache patientsCache = cacheManager.getCache(PatientService.PATIENTS_CACHE);
+    if (patientsCache != null) {
+      ids.forEach(patientsCache::evict);
+    }
+    if (!ids.isEmpty()) {
+      javax.persistence.Cache secondLevelCache = entityManagerFactory.getCache();
+      ids.forEach(id -> secondLevelCache.evict(Patient.class, id));
+      entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+    }
+  }
+
+  private boolean pauseBetweenChunks() {
+    try {
+      Thread.sleep(purgeChunkPauseMillis);
+      return true;
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      log.warn("purgePatientRecords interrupted, remaining records are purged on the next run");
+      return false;
+    }
+  }
 }
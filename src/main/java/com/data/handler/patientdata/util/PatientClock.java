@@ -0,0 +1,53 @@
+package com.data.handler.patientdata.util;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Objects;
+
+/**
+ * Current date of a {@link Clock}, computed once per day. Until the clock reaches the start of the next day the cached
+ * date is returned after a single read of the clock millis.
+ */
+public final class PatientClock {
+
+  private final Clock clock;
+
+  private volatile Day day;
+
+  public PatientClock(Clock clock) {
+    this.clock = Objects.requireNonNull(clock, "clock");
+  }
+
+  public LocalDate today() {
+    long now = clock.millis();
+    Day current = day;
+    if (current == null || now < current.startMillis || now >= current.nextStartMillis) {
+      current = Day.of(LocalDate.now(clock), clock.getZone());
+      day = current;
+    }
+    return current.date;
+  }
+
+  public Clock getClock() {
+    return clock;
+  }
+
+  private static final class Day {
+
+    private final LocalDate date;
+    private final long startMillis;
+    private final long nextStartMillis;
+
+    private Day(LocalDate date, long startMillis, long nextStartMillis) {
+      this.date = date;
+      this.startMillis = startMillis;
+      this.nextStartMillis = nextStartMillis;
+    }
+
+    private static Day of(LocalDate date, ZoneId zone) {
+      return new Day(date, date.atStartOfDay(zone).toInstant().toEpochMilli(),
+          date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli());
+    }
+  }
+}
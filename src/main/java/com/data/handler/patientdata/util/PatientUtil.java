@@ -1,10 +1,27 @@
 package com.data.handler.patientdata.util;
 
+import java.time.Clock;
 import java.time.LocalDate;
 
 public class PatientUtil {
 
+  private static volatile PatientClock clock = new PatientClock(Clock.systemDefaultZone());
+
+  /**
+   * Current date of the application clock, shared by the entity callbacks, the validators and the purge.
+   */
   public static LocalDate getCurrentDate(){
-    return LocalDate.now();
+    return clock.today();
+  }
+
+  /**
+   * Replaces the application clock, for ex: by the clock bean at startup or by a fixed clock in tests.
+   */
+  public static void setClock(Clock clock) {
+    PatientUtil.clock = new PatientClock(clock);
+  }
+
+  public static Clock getClock() {
+    return clock.getClock();
   }
 }
@@ -0,0 +1,8 @@
+-- Serves findAllByGenderOrderByLastNameAsc without a sort
+create index idx_patient_gender_last_name on patient (gender, last_name);
+
+-- Serves findAllByFirstNameAndLastNameOrderByLastNameAsc and the ordering by last name
+create index idx_patient_last_name_first_name on patient (last_name, first_name);
+
+-- Serves the range scan of the purge of older records
+create index idx_patient_created_on on patient (created_on);
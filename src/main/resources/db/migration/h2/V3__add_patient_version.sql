@@ -0,0 +1,2 @@
+-- Optimistic locking version of the patient, also the source of the ETag of GET /api/v1/patients/{id}
+alter table patient add column version bigint default 0 not null;
@@ -0,0 +1,13 @@
+-- The ids are generated from their own patient_seq with the pooled-lo optimizer from now on, it hands out the fetched
+-- sequence value and the following ids of the block. Databases baselined from the schema generated by hibernate have no
+-- patient_seq yet, their ids came from hibernate_sequence.
+create sequence if not exists patient_seq start with 1 increment by 50;
+
+-- The sequence is moved past every id already in use and past the values already handed out by the previous sequences,
+-- and never back, so deleted ids are not handed out again either.
+alter sequence patient_seq restart with (
+    select greatest(coalesce(max(p.id), 0) + 1,
+                    (select max(s.base_value) from information_schema.sequences s
+                     where s.sequence_schema = current_schema
+                       and s.sequence_name in ('PATIENT_SEQ', 'HIBERNATE_SEQUENCE')))
+    from patient p);
@@ -0,0 +1,2 @@
+-- Serves the max(version) of the fingerprint of GET /api/v1/patients without a scan
+create index idx_patient_version on patient (version);
@@ -0,0 +1,11 @@
+-- Baseline of the patient table previously generated by hibernate (ddl-auto=update). The ids came from the shared
+-- hibernate_sequence at the time, their own patient_seq is created by V4
+create table if not exists patient (
+    id         bigint not null,
+    first_name varchar(255),
+    last_name  varchar(255),
+    gender     varchar(255),
+    birthday   date,
+    created_on date,
+    primary key (id)
+) engine = InnoDB;
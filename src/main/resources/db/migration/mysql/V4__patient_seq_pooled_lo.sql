@@ -0,0 +1,26 @@
+-- The ids are generated from their own patient_seq with the pooled-lo optimizer from now on, it hands out the fetched
+-- sequence value and the following ids of the block. Databases baselined from the schema generated by hibernate have no
+-- patient_seq yet, their ids came from hibernate_sequence. MySQL has no sequences, hibernate emulates them with a single
+-- row table.
+create table if not exists patient_seq (
+    next_val bigint
+) engine = InnoDB;
+
+insert into patient_seq (next_val)
+select 1 from dual where not exists (select * from patient_seq);
+
+-- The sequence is moved past every id already in use and past the values already handed out by the previous sequences,
+-- and never back, so deleted ids are not handed out again either.
+update patient_seq
+set next_val = greatest(next_val, (select coalesce(max(p.id), 0) + 1 from patient p));
+
+-- hibernate_sequence only exists on the databases baselined from the schema generated by hibernate
+set @seed_from_hibernate_sequence = (
+    select if(count(*) > 0,
+              'update patient_seq set next_val = greatest(next_val, (select max(h.next_val) from hibernate_sequence h))',
+              'do 0')
+    from information_schema.tables
+    where table_schema = database() and table_name = 'hibernate_sequence');
+prepare seed_from_hibernate_sequence from @seed_from_hibernate_sequence;
+execute seed_from_hibernate_sequence;
+deallocate prepare seed_from_hibernate_sequence;
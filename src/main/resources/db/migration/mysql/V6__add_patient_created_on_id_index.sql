@@ -0,0 +1,3 @@
+-- Serves the keyset (created_on, id) chunks of the purge of older records in index order, replaces the created_on index
+create index idx_patient_created_on_id on patient (created_on, id);
+drop index idx_patient_created_on on patient;
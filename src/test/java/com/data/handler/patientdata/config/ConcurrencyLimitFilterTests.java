@@ -0,0 +1,51 @@
+package com.data.handler.patientdata.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+public class ConcurrencyLimitFilterTests {
+
+  private final ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(1, 100);
+
+  @Test
+  public void givenAllPermitsInUse_whenFilterRequest_thenReturnServiceUnavailable() throws Exception {
+    // given - precondition or setup
+    CountDownLatch requestInFlight = new CountDownLatch(1);
+    CountDownLatch releaseRequest = new CountDownLatch(1);
+    CompletableFuture<Void> firstRequest = CompletableFuture.runAsync(() -> {
+      try {
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/patients"), new MockHttpServletResponse(), (req, res) -> {
+          requestInFlight.countDown();
+          try {
+            releaseRequest.await();
+          } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+          }
+        });
+      } catch (Exception ex) {
+        throw new IllegalStateException(ex);
+      }
+    });
+    assertThat(requestInFlight.await(5, TimeUnit.SECONDS)).isTrue();
+
+    // when -  action or the behaviour that we are going test
+    MockHttpServletResponse rejectedResponse = new MockHttpServletResponse();
+    filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/patients"), rejectedResponse, new MockFilterChain());
+    releaseRequest.countDown();
+    firstRequest.get(5, TimeUnit.SECONDS);
+    MockHttpServletResponse laterResponse = new MockHttpServletResponse();
+    filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/patients"), laterResponse, new MockFilterChain());
+
+    // then - verify the output
+    assertThat(rejectedResponse.getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE.value());
+    assertThat(laterResponse.getStatus()).isEqualTo(HttpStatus.OK.value());
+  }
+}
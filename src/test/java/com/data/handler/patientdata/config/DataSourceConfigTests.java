@@ -0,0 +1,70 @@
+package com.data.handler.patientdata.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class DataSourceConfigTests {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private DataSource dataSource;
+
+  @Autowired
+  @Qualifier(DataSourceConfig.PURGE_DATA_SOURCE)
+  private DataSource purgeDataSource;
+
+  @Test
+  public void givenDataSources_whenInjected_thenApiAndPurgeUseSeparatePools() {
+    assertThat(((HikariDataSource) dataSource).getPoolName()).isEqualTo("api");
+    assertThat(((HikariDataSource) purgeDataSource).getPoolName()).isEqualTo("purge");
+    assertThat(((HikariDataSource) purgeDataSource).getMaximumPoolSize())
+        .isLessThan(((HikariDataSource) dataSource).getMaximumPoolSize());
+  }
+
+  @Test
+  public void givenExhaustedPurgePool_whenRequestsAreServed_thenNoRequestWaitsForAConnection() throws Exception {
+    // given - precondition or setup
+    HikariDataSource purgePool = (HikariDataSource) purgeDataSource;
+    HikariDataSource apiPool = (HikariDataSource) dataSource;
+    List<Connection> purgeConnections = new ArrayList<>();
+    try {
+      for (int i = 0; i < purgePool.getMaximumPoolSize(); i++) {
+        purgeConnections.add(purgePool.getConnection());
+      }
+      assertThat(purgePool.getHikariPoolMXBean().getIdleConnections()).isZero();
+
+      // when -  action or the behaviour that we are going test
+      long startedAt = System.nanoTime();
+      for (int i = 0; i < 50; i++) {
+        mockMvc.perform(get("/api/v1/patients/paged").param("size", "10")).andExpect(status().isOk());
+      }
+      Duration elapsed = Duration.ofNanos(System.nanoTime() - startedAt);
+
+      // then - verify the output
+      assertThat(apiPool.getHikariPoolMXBean().getThreadsAwaitingConnection()).isZero();
+      assertThat(elapsed).isLessThan(Duration.ofMillis(apiPool.getConnectionTimeout()));
+    } finally {
+      for (Connection connection : purgeConnections) {
+        connection.close();
+      }
+    }
+  }
+}
@@ -1,13 +1,28 @@
 package com.data.handler.patientdata.constraints;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
 
+import com.data.handler.patientdata.util.PatientUtil;
+import java.time.Clock;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 
 public class PatientAgeEligileValidatorTests {
 
+  @AfterEach
+  public void resetClock() {
+    PatientUtil.setClock(Clock.systemDefaultZone());
+  }
+
   @Test
   public void patientInvalidNameTest() {
     PatientAgeEligibleValidator validator = new PatientAgeEligibleValidator();
@@ -15,4 +30,40 @@ public class PatientAgeEligileValidatorTests {
     assertFalse(validator.isValid(LocalDate.now().minusYears(17), null));
   }
 
+  @Test
+  public void givenClockPassingMidnight_whenValidate_thenCutoffRollsOverToNextDay() {
+    // given - precondition or setup
+    AtomicReference<Instant> now = new AtomicReference<>(Instant.parse("2024-02-29T23:59:59Z"));
+    PatientUtil.setClock(new Clock() {
+      @Override
+      public ZoneId getZone() {
+        return ZoneOffset.UTC;
+      }
+
+      @Override
+      public Clock withZone(ZoneId zone) {
+        throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public Instant instant() {
+        return now.get();
+      }
+    });
+    PatientAgeEligible constraint = mock(PatientAgeEligible.class);
+    given(constraint.minimumAge()).willReturn(21);
+    PatientAgeEligibleValidator validator = new PatientAgeEligibleValidator();
+    validator.initialize(constraint);
+    LocalDate birthDay = LocalDate.of(2003, 3, 1);
+
+    // when -  action or the behaviour that we are going test
+    boolean validBeforeMidnight = validator.isValid(birthDay, null);
+    now.set(Instant.parse("2024-03-01T00:00:00Z"));
+    boolean validAfterMidnight = validator.isValid(birthDay, null);
+
+    // then - verify the output
+    assertFalse(validBeforeMidnight);
+    assertTrue(validAfterMidnight);
+    assertEquals(LocalDate.of(2024, 3, 1), PatientUtil.getCurrentDate());
+  }
 }
@@ -2,22 +2,41 @@ package com.data.handler.patientdata.controller;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.containsInRelativeOrder;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.willDoNothing;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.data.handler.patientdata.Gender;
+import com.data.handler.patientdata.cohort.PatientCohortSnapshots;
 import com.data.handler.patientdata.model.Patient;
 import com.data.handler.patientdata.repository.PatientRepository;
+import com.data.handler.patientdata.search.PatientNameIndex;
+import com.data.handler.patientdata.service.PatientService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import com.jayway.jsonpath.JsonPath;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Comparator;
@@ -25,36 +44,72 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+import javax.persistence.EntityManagerFactory;
+import org.awaitility.Awaitility;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 
 @SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
 @AutoConfigureMockMvc
+@AutoConfigureMetrics
 @EnableJpaAuditing
 public class PatientControllerIntegrationTests {
 
   @Autowired
   private MockMvc mockMvc;
 
+  @LocalServerPort
+  private int port;
+
   @Autowired
   private ObjectMapper objectMapper;
 
   @Autowired
   private PatientRepository patientRepository;
 
+  @Autowired
+  private CacheManager cacheManager;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private PatientNameIndex patientNameIndex;
+
+  @Autowired
+  private PatientCohortSnapshots patientCohortSnapshots;
+
   @BeforeEach
   public void setup() {
     patientRepository.deleteAll();
+    patientNameIndex.rebuild();
+    patientCohortSnapshots.rebuild();
+    cacheManager.getCacheNames().forEach(cacheName -> cacheManager.getCache(cacheName).clear());
   }
 
   @Test
@@ -82,6 +137,232 @@ public class PatientControllerIntegrationTests {
         .andExpect(jsonPath("$[*].lastName", containsInRelativeOrder("Kumar", "Schneider", "Sharma")));
   }
 
+  @Test
+  public void givenListOfPatients_whenGetAllPatientsAsCborOrSmile_thenReturnSamePatientsAsJson() throws Exception {
+    // given - precondition or setup
+    patientRepository.saveAll(List.of(
+        Patient.builder().firstName("Praveen").lastName("Kumar").gender(Gender.MALE).birthDay(LocalDate.now().minusYears(20)).build(),
+        Patient.builder().firstName("Palki").lastName("Sharma").gender(Gender.FEMALE).birthDay(LocalDate.now().minusYears(20)).build()));
+    String json = mockMvc.perform(get("/api/v1/patients"))
+        .andReturn().getResponse().getContentAsString();
+
+    // when -  action or the behaviour that we are going test
+    MvcResult cbor = mockMvc.perform(get("/api/v1/patients").accept(MediaType.APPLICATION_CBOR)).andReturn();
+    MvcResult smile = mockMvc.perform(get("/api/v1/patients").accept("application/x-jackson-smile")).andReturn();
+
+    // then - verify the output
+    assertThat(cbor.getResponse().getContentType()).isEqualTo(MediaType.APPLICATION_CBOR_VALUE);
+    assertThat(new CBORMapper().readTree(cbor.getResponse().getContentAsByteArray())).isEqualTo(objectMapper.readTree(json));
+    assertThat(cbor.getResponse().getContentAsByteArray().length).isLessThan(json.length());
+    assertThat(smile.getResponse().getContentType()).isEqualTo("application/x-jackson-smile");
+    assertThat(new SmileMapper().readTree(smile.getResponse().getContentAsByteArray())).isEqualTo(objectMapper.readTree(json));
+  }
+
+  @Test
+  public void givenJsonETags_whenGetPatientsAsCborIfNoneMatch_thenReturnCborWithOtherETagsVaryingByAccept() throws Exception {
+    // given - precondition or setup
+    Patient patient = patientRepository.save(Patient.builder()
+        .firstName("Praveen").lastName("Kumar").gender(Gender.MALE).birthDay(LocalDate.now().minusYears(20))
+        .build());
+    String patientsETag = mockMvc.perform(get("/api/v1/patients"))
+        .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT)))
+        .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    String patientETag = mockMvc.perform(get("/api/v1/patients/{id}", patient.getId()))
+        .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT)))
+        .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+    // when -  action or the behaviour that we are going test
+    MvcResult patients = mockMvc.perform(get("/api/v1/patients").accept(MediaType.APPLICATION_CBOR)
+        .header(HttpHeaders.IF_NONE_MATCH, patientsETag)).andReturn();
+    MvcResult cborPatient = mockMvc.perform(get("/api/v1/patients/{id}", patient.getId())
+        .accept(MediaType.APPLICATION_CBOR).header(HttpHeaders.IF_NONE_MATCH, patientETag)).andReturn();
+    MvcResult femalePatients = mockMvc.perform(get("/api/v1/patients/female").accept(MediaType.APPLICATION_CBOR)).andReturn();
+
+    // then - verify the output
+    assertThat(patients.getResponse().getStatus()).isEqualTo(HttpStatus.OK.value());
+    assertThat(patients.getResponse().getContentType()).isEqualTo(MediaType.APPLICATION_CBOR_VALUE);
+    assertThat(patients.getResponse().getHeader(HttpHeaders.ETAG)).isNotEqualTo(patientsETag).endsWith("-cbor\"");
+    assertThat(patients.getResponse().getHeaders(HttpHeaders.VARY)).contains(HttpHeaders.ACCEPT);
+    assertThat(cborPatient.getResponse().getStatus()).isEqualTo(HttpStatus.OK.value());
+    assertThat(cborPatient.getResponse().getContentType()).isEqualTo(MediaType.APPLICATION_CBOR_VALUE);
+    assertThat(cborPatient.getResponse().getHeader(HttpHeaders.ETAG)).isNotEqualTo(patientETag).endsWith("-cbor\"");
+    assertThat(cborPatient.getResponse().getHeaders(HttpHeaders.VARY)).contains(HttpHeaders.ACCEPT);
+    assertThat(femalePatients.getResponse().getHeaders(HttpHeaders.VARY)).contains(HttpHeaders.ACCEPT);
+  }
+
+  @Test
+  public void givenLargeListOfPatients_whenGetAllPatientsAcceptingGzip_thenReturnCompressedPatients() throws Exception {
+    // given - precondition or setup
+    patientRepository.saveAll(IntStream.range(0, 100)
+        .mapToObj(i -> Patient.builder()
+            .firstName("First" + i).lastName("Last" + i).gender(Gender.MALE).birthDay(LocalDate.now().minusYears(20))
+            .build())
+        .collect(Collectors.toList()));
+    HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/patients"))
+        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+        .build();
+
+    // when -  action or the behaviour that we are going test
+    HttpResponse<byte[]> response = HttpClient.newHttpClient().send(request, BodyHandlers.ofByteArray());
+
+    // then - verify the output
+    assertThat(response.statusCode()).isEqualTo(200);
+    assertThat(response.headers().firstValue(HttpHeaders.CONTENT_ENCODING)).contains("gzip");
+    try (InputStream content = new GZIPInputStream(new ByteArrayInputStream(response.body()))) {
+      assertThat(objectMapper.readTree(content).size()).isEqualTo(100);
+    }
+  }
+
+  @Test
+  public void givenListOfPatients_whenGetPatientsPageByCursor_thenReturnAllPatientsSortedAcrossPages() throws Exception {
+    // given - precondition or setup
+    List<Patient> listOfPatients = new ArrayList<>();
+    listOfPatients.add(Patient.builder()
+        .firstName("Praveen").lastName("Kumar").gender(Gender.MALE).birthDay(LocalDate.now().minusYears(20))
+        .build());
+    listOfPatients.add(Patient.builder()
+        .firstName("Palki").lastName("Sharma").gender(Gender.FEMALE).birthDay(LocalDate.now().minusYears(20))
+        .build());
+    listOfPatients.add(Patient.builder()
+        .firstName("Christina").lastName("Schneider").gender(Gender.FEMALE).birthDay(LocalDate.now().minusYears(20))
+        .build());
+    patientRepository.saveAll(listOfPatients);
+
+    // when -  action or the behaviour that we are going test
+    ResultActions firstPage = mockMvc.perform(get("/api/v1/patients/paged").param("size", "2"));
+    String nextCursor = JsonPath.read(firstPage.andReturn().getResponse().getContentAsString(), "$.nextCursor");
+    ResultActions secondPage = mockMvc.perform(get("/api/v1/patients/paged").param("size", "2").param("cursor", nextCursor));
+
+    // then - verify the output
+    firstPage.andExpect(status().isOk())
+        .andDo(print())
+        .andExpect(jsonPath("$.patients[*].lastName", contains("Kumar", "Schneider")));
+    secondPage.andExpect(status().isOk())
+        .andDo(print())
+        .andExpect(jsonPath("$.patients[*].lastName", contains("Sharma")))
+        .andExpect(jsonPath("$.nextCursor").doesNotExist());
+  }
+
+  @Test
+  public void givenInvalidCursor_whenGetPatientsPage_thenReturnBadRequest() throws Exception {
+    // when -  action or the behaviour that we are going test
+    ResultActions response = mockMvc.perform(get("/api/v1/patients/paged").param("cursor", "not-a-cursor"));
+
+    // then - verify the output
+    response.andExpect(status().isBadRequest())
+        .andDo(print())
+        .andExpect(jsonPath("$.messages", is(List.of("Invalid cursor not-a-cursor"))));
+  }
+
+  @Test
+  public void givenListOfPatients_whenFilterPatientsByGenderAndBirthDay_thenReturnMatchingPatientsAcrossPages() throws Exception {
+    // given - precondition or setup
+    List<Patient> listOfPatients = new ArrayList<>();
+    listOfPatients.add(Patient.builder()
+        .firstName("Praveen").lastName("Kumar").gender(Gender.MALE).birthDay(LocalDate.now().minusYears(20))
+        .build());
+    listOfPatients.add(Patient.builder()
+        .firstName("Palki").lastName("Sharma").gender(Gender.FEMALE).birthDay(LocalDate.now().minusYears(20))
+        .build());
+    listOfPatients.add(Patient.builder()
+        .firstName("Christina").lastName("Schneider").gender(Gender.FEMALE).birthDay(LocalDate.now().minusYears(30))
+        .build());
+    listOfPatients.add(Patient.builder()
+        .firstName("Sameera").lastName("Key").gender(Gender.FEMALE).birthDay(LocalDate.now().minusYears(60))
+        .build());
+    patientRepository.saveAll(listOfPatients);
+    String birthDayFrom = LocalDate.now().minusYears(40).toString();
+
+    // when -  action or the behaviour that we are going test
+    ResultActions firstPage = mockMvc.perform(get("/api/v1/patients/filter")
+        .param("gender", "female").param("birthDayFrom", birthDayFrom).param("size", "1"));
+    String nextCursor = JsonPath.read(firstPage.andReturn().getResponse().getContentAsString(), "$.nextCursor");
+    ResultActions secondPage = mockMvc.perform(get("/api/v1/patients/filter")
+        .param("gender", "female").param("birthDayFrom", birthDayFrom).param("size", "1").param("cursor", nextCursor));
+
+    // then - verify the output
+    firstPage.andExpect(status().isOk())
+        .andDo(print())
+        .andExpect(jsonPath("$.patients[*].lastName", contains("Schneider")));
+    secondPage.andExpect(status().isOk())
+        .andDo(print())
+        .andExpect(jsonPath("$.patients[*].lastName", contains("Sharma")))
+        .andExpect(jsonPath("$.nextCursor").doesNotExist());
+  }
+
+  @Test
+  public void givenInvalidBirthDayRange_whenFilterPatients_thenReturnBadRequest() throws Exception {
+    // when -  action or the behaviour that we are going test
+    ResultActions response = mockMvc.perform(get("/api/v1/patients/filter")
+        .param("birthDayFrom", "2000-01-02").param("birthDayTo", "2000-01-01"));
+
+    // then - verify the output
+    response.andExpect(status().isBadRequest())
+        .andDo(print())
+        .andExpect(jsonPath("$.messages", is(List.of("birthDayFrom 2000-01-02 must not be after birthDayTo 2000-01-01"))));
+  }
+
+  @Test
+  public void givenCreatedPatients_whenSearchByPartialOrMisspelledName_thenReturnMatchingPatientsUntilDeleted() throws Exception {
+    // given - precondition or setup
+    List<Long> ids = new ArrayList<>();
+    for (Patient patient : List.of(
+        Patient.builder().firstName("Christina").lastName("Schneider").gender(Gender.FEMALE).birthDay(LocalDate.now().minusYears(30)).build(),
+        Patient.builder().firstName("Christian").lastName("Schmidt").gender(Gender.MALE).birthDay(LocalDate.now().minusYears(40)).build(),
+        Patient.builder().firstName("Palki").lastName("Sharma").gender(Gender.FEMALE).birthDay(LocalDate.now().minusYears(20)).build())) {
+      String created = mockMvc.perform(post("/api/v1/patients")
+              .contentType(MediaType.APPLICATION_JSON)
+              .content(objectMapper.writeValueAsString(patient)))
+          .andExpect(status().isCreated())
+          .andReturn().getResponse().getContentAsString();
+      ids.add(((Number) JsonPath.read(created, "$.id")).longValue());
+    }
+
+    // when -  action or the behaviour that we are going test
+    ResultActions prefixResponse = mockMvc.perform(get("/api/v1/patients/search").param("name", "chris sch"));
+    ResultActions fuzzyResponse = mockMvc.perform(get("/api/v1/patients/search").param("name", "shneider").param("fuzzy", "true"));
+    mockMvc.perform(delete("/api/v1/patients/{id}", ids.get(0))).andExpect(status().isOk());
+    ResultActions afterDeleteResponse = mockMvc.perform(get("/api/v1/patients/search").param("name", "chris sch"));
+
+    // then - verify the output
+    prefixResponse.andExpect(status().isOk())
+        .andDo(print())
+        .andExpect(jsonPath("$[*].lastName", contains("Schmidt", "Schneider")));
+    fuzzyResponse.andExpect(status().isOk())
+        .andExpect(jsonPath("$[*].lastName", contains("Schneider")));
+    afterDeleteResponse.andExpect(status().isOk())
+        .andExpect(jsonPath("$[*].lastName", contains("Schmidt")));
+  }
+
+  @Test
+  public void givenListOfPatients_whenExportPatients_thenStreamPatientsAsNdjsonSorted() throws Exception {
+    // given - precondition or setup
+    List<Patient> listOfPatients = new ArrayList<>();
+    listOfPatients.add(Patient.builder()
+        .firstName("Palki").lastName("Sharma").gender(Gender.FEMALE).birthDay(LocalDate.now().minusYears(20))
+        .build());
+    listOfPatients.add(Patient.builder()
+        .firstName("Praveen").lastName("Kumar").gender(Gender.MALE).birthDay(LocalDate.now().minusYears(20))
+        .build());
+    List<Patient> savedPatients = patientRepository.saveAll(listOfPatients);
+    entityManagerFactory.getCache().evictAll();
+
+    // when -  action or the behaviour that we are going test
+    MvcResult result = mockMvc.perform(get("/api/v1/patients/export"))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+    ResultActions response = mockMvc.perform(asyncDispatch(result));
+
+    // then - verify the output
+    response.andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.APPLICATION_NDJSON));
+    String[] lines = result.getResponse().getContentAsString().split("\n");
+    assertThat(lines).hasSize(2);
+    assertThat(objectMapper.readValue(lines[0], Patient.class).getLastName()).isEqualTo("Kumar");
+    assertThat(objectMapper.readValue(lines[1], Patient.class).getLastName()).isEqualTo("Sharma");
+    assertThat(entityManagerFactory.getCache().contains(Patient.class, savedPatients.get(0).getId())).isFalse();
+  }
+
   @Test
   public void givenListOfPatients_whenGetAllFemalePatients_thenReturnFemalePatientsList() throws Exception {
     // given - precondition or setup
@@ -96,6 +377,7 @@ public class PatientControllerIntegrationTests {
         .firstName("Christina").lastName("Schneider").gender(Gender.FEMALE).birthDay(LocalDate.now().minusYears(20))
         .build());
     patientRepository.saveAll(listOfPatients);
+    patientCohortSnapshots.rebuild();
 
     // when -  action or the behaviour that we are going test
     ResultActions response = mockMvc.perform(get("/api/v1/patients/female"));
@@ -110,6 +392,39 @@ public class PatientControllerIntegrationTests {
     assertThat(genderSet.iterator().next()).isEqualTo(Gender.FEMALE.getGender());
   }
 
+  @Test
+  public void givenCreatedAndDeletedPatients_whenGetAllFemalePatients_thenSnapshotFollowsChanges() throws Exception {
+    // given - precondition or setup
+    Patient sharma = Patient.builder()
+        .firstName("Palki").lastName("Sharma").gender(Gender.FEMALE).birthDay(LocalDate.now().minusYears(20))
+        .build();
+    Patient schneider = Patient.builder()
+        .firstName("Christina").lastName("Schneider").gender(Gender.FEMALE).birthDay(LocalDate.now().minusYears(20))
+        .build();
+    mockMvc.perform(post("/api/v1/patients").contentType(MediaType.APPLICATION_JSON)
+        .content(objectMapper.writeValueAsString(sharma))).andExpect(status().isCreated());
+    String created = mockMvc.perform(post("/api/v1/patients").contentType(MediaType.APPLICATION_JSON)
+        .content(objectMapper.writeValueAsString(schneider))).andReturn().getResponse().getContentAsString();
+
+    // when -  action or the behaviour that we are going test
+    ResultActions afterCreate = mockMvc.perform(get("/api/v1/patients/female"));
+    mockMvc.perform(delete("/api/v1/patients/{id}", JsonPath.<Integer>read(created, "$.id"))).andExpect(status().isOk());
+    ResultActions afterDelete = mockMvc.perform(get("/api/v1/patients/female"));
+    MvcResult cbor = mockMvc.perform(get("/api/v1/patients/female").accept(MediaType.APPLICATION_CBOR)).andReturn();
+
+    // then - verify the output
+    afterCreate.andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+        // written as one byte array of known length, a serialized response is streamed without one
+        .andExpect(header().exists(HttpHeaders.CONTENT_LENGTH))
+        .andExpect(jsonPath("$[*].lastName", contains("Schneider", "Sharma")));
+    afterDelete.andExpect(status().isOk())
+        .andExpect(jsonPath("$[*].lastName", contains("Sharma")));
+    assertThat(cbor.getResponse().getContentType()).isEqualTo(MediaType.APPLICATION_CBOR_VALUE);
+    assertThat(new CBORMapper().readTree(cbor.getResponse().getContentAsByteArray()).get(0).get("lastName").asText())
+        .isEqualTo("Sharma");
+  }
+
   @Test
   public void givenPatientId_whenGetPatientById_thenReturnPatientObject() throws Exception {
     // given - precondition or setup
@@ -131,6 +446,138 @@ public class PatientControllerIntegrationTests {
         .andExpect(jsonPath("$.birthDay", is(patient.getBirthDay().toString())));
   }
 
+  @Test
+  public void givenPatientId_whenGetPatientByIdTwice_thenSecondLookupIsCacheHitUntilDeleted() throws Exception {
+    // given - precondition or setup
+    Patient patient = patientRepository.save(Patient.builder()
+        .firstName("Praveen").lastName("Kumar").gender(Gender.MALE).birthDay(LocalDate.now().minusYears(20))
+        .build());
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    mockMvc.perform(get("/api/v1/patients/{id}", patient.getId())).andExpect(status().isOk());
+    double hitsBefore = cacheHits();
+    long statementsBefore = statistics.getPrepareStatementCount();
+
+    // when -  action or the behaviour that we are going test
+    ResultActions response = mockMvc.perform(get("/api/v1/patients/{id}", patient.getId()));
+    long statementsOfCachedLookup = statistics.getPrepareStatementCount() - statementsBefore;
+    double hitsOfCachedLookup = cacheHits() - hitsBefore;
+    mockMvc.perform(delete("/api/v1/patients/{id}", patient.getId())).andExpect(status().isOk());
+    ResultActions responseAfterDelete = mockMvc.perform(get("/api/v1/patients/{id}", patient.getId()));
+
+    // then - verify the output
+    response.andExpect(status().isOk())
+        .andExpect(jsonPath("$.lastName", is("Kumar")));
+    assertThat(statementsOfCachedLookup).isZero();
+    assertThat(hitsOfCachedLookup).isEqualTo(1);
+    responseAfterDelete.andExpect(status().isNotFound());
+    assertThat(cacheManager.getCache(PatientService.PATIENTS_CACHE).get(patient.getId())).isNull();
+  }
+
+  @Test
+  public void givenPatientId_whenGetPatientByIdTwice_thenSecondResponseIsWrittenFromCachedJsonUntilDeleted() throws Exception {
+    // given - precondition or setup
+    Patient patient = patientRepository.save(Patient.builder()
+        .firstName("Praveen").lastName("Kumar").gender(Gender.MALE).birthDay(LocalDate.now().minusYears(20))
+        .build());
+    String firstJson = mockMvc.perform(get("/api/v1/patients/{id}", patient.getId()))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getContentAsString();
+
+    // when -  action or the behaviour that we are going test
+    ResultActions response = mockMvc.perform(get("/api/v1/patients/{id}", patient.getId()));
+    mockMvc.perform(delete("/api/v1/patients/{id}", patient.getId())).andExpect(status().isOk());
+    ResultActions responseAfterDelete = mockMvc.perform(get("/api/v1/patients/{id}", patient.getId()));
+
+    // then - verify the output
+    response.andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+        .andExpect(content().string(firstJson))
+        .andExpect(header().string(HttpHeaders.ETAG, "W/\"patient-" + patient.getId() + "-0-json\""));
+    responseAfterDelete.andExpect(status().isNotFound());
+    mockMvc.perform(get("/actuator/prometheus"))
+        .andExpect(content().string(containsString("cache_gets_total{cache=\"patientJson\"")));
+    String metric = mockMvc.perform(get("/actuator/metrics/cache.gets")
+            .param("tag", "cache:patientJson")
+            .param("tag", "result:hit"))
+        .andReturn().getResponse().getContentAsString();
+    assertThat(((Number) JsonPath.read(metric, "$.measurements[0].value")).doubleValue()).isPositive();
+  }
+
+  @Test
+  public void givenETag_whenGetPatientIfNoneMatch_thenReturnNotModifiedUntilPatientsChange() throws Exception {
+    // given - precondition or setup
+    Patient patient = patientRepository.save(Patient.builder()
+        .firstName("Praveen").lastName("Kumar").gender(Gender.MALE).birthDay(LocalDate.now().minusYears(20))
+        .build());
+    String patientETag = mockMvc.perform(get("/api/v1/patients/{id}", patient.getId()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.version", is(0)))
+        .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    String patientsETag = mockMvc.perform(get("/api/v1/patients"))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+    // when -  action or the behaviour that we are going test
+    ResultActions patientResponse = mockMvc.perform(get("/api/v1/patients/{id}", patient.getId())
+        .header(HttpHeaders.IF_NONE_MATCH, patientETag));
+    ResultActions patientsResponse = mockMvc.perform(get("/api/v1/patients")
+        .header(HttpHeaders.IF_NONE_MATCH, patientsETag));
+    // written around the services, like another instance or a SQL client would
+    Patient created = patientRepository.save(Patient.builder()
+        .firstName("Palki").lastName("Sharma").gender(Gender.FEMALE).birthDay(LocalDate.now().minusYears(20))
+        .build());
+    ResultActions changedPatientsResponse = mockMvc.perform(get("/api/v1/patients")
+        .header(HttpHeaders.IF_NONE_MATCH, patientsETag));
+    String changedPatientsETag = changedPatientsResponse.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    jdbcTemplate.update("delete from patient where id = ?", created.getId());
+    ResultActions deletedPatientsResponse = mockMvc.perform(get("/api/v1/patients")
+        .header(HttpHeaders.IF_NONE_MATCH, changedPatientsETag));
+
+    // then - verify the output
+    assertThat(patientETag).isEqualTo("W/\"patient-" + patient.getId() + "-0-json\"");
+    patientResponse.andExpect(status().isNotModified())
+        .andExpect(header().string(HttpHeaders.ETAG, patientETag));
+    patientsResponse.andExpect(status().isNotModified())
+        .andExpect(content().string(""));
+    changedPatientsResponse.andExpect(status().isOk())
+        .andExpect(jsonPath("$.size()", is(2)));
+    assertThat(changedPatientsETag).isNotEqualTo(patientsETag);
+    deletedPatientsResponse.andExpect(status().isOk())
+        .andExpect(jsonPath("$.size()", is(1)));
+    assertThat(deletedPatientsResponse.andReturn().getResponse().getHeader(HttpHeaders.ETAG))
+        .isNotEqualTo(changedPatientsETag);
+  }
+
+  @Test
+  public void givenServedRequests_whenScrapePrometheus_thenReturnServiceAndPoolHistograms() throws Exception {
+    // given - precondition or setup
+    patientRepository.save(Patient.builder()
+        .firstName("Praveen").lastName("Kumar").gender(Gender.MALE).birthDay(LocalDate.now().minusYears(20))
+        .build());
+    mockMvc.perform(get("/api/v1/patients")).andExpect(status().isOk());
+
+    // when -  action or the behaviour that we are going test
+    ResultActions response = mockMvc.perform(get("/actuator/prometheus"));
+
+    // then - verify the output
+    response.andExpect(status().isOk())
+        .andExpect(content().string(containsString(
+            "patient_service_seconds_bucket{class=\"com.data.handler.patientdata.service.PatientServiceImpl\",exception=\"none\",method=\"getAllPatientsOrderByLastNameAsc\"")))
+        .andExpect(content().string(containsString("patient_service_seconds{class=\"com.data.handler.patientdata.service.PatientServiceImpl\",exception=\"none\",method=\"getAllPatientsOrderByLastNameAsc\",quantile=\"0.99\"")))
+        .andExpect(content().string(containsString("patient_service_results_patients_count{method=\"getAllPatients\"")))
+        .andExpect(content().string(containsString("hikaricp_connections_acquire_seconds_bucket")))
+        .andExpect(content().string(containsString("cache_gets_total{cache=\"patients\"")));
+  }
+
+  private double cacheHits() throws Exception {
+    String metric = mockMvc.perform(get("/actuator/metrics/cache.gets")
+            .param("tag", "name:patients")
+            .param("tag", "result:hit"))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getContentAsString();
+    return ((Number) JsonPath.read(metric, "$.measurements[0].value")).doubleValue();
+  }
+
   @Test
   public void givenInvalidPatientId_whenGetPatientById_thenReturnEmpty() throws Exception {
     // given - precondition or setup
@@ -189,6 +636,61 @@ public class PatientControllerIntegrationTests {
         .andExpect(jsonPath("$.birthDay", is(patient.getBirthDay().toString())));
   }
 
+  @Test
+  public void givenListOfPatients_whenCreatePatients_thenSaveValidPatientsAndRejectInvalidOnes() throws Exception {
+    // given - precondition or setup
+    List<Patient> listOfPatients = List.of(
+        Patient.builder().firstName("Praveen").lastName("Kumar").gender(Gender.MALE).birthDay(LocalDate.now().minusYears(20))
+            .build(),
+        Patient.builder().firstName("Palki").lastName("Sharma").gender(Gender.FEMALE).birthDay(LocalDate.now().minusYears(10))
+            .build(),
+        Patient.builder().firstName("Christina").lastName("Schneider").gender(Gender.FEMALE).birthDay(LocalDate.now().minusYears(20))
+            .build());
+
+    // when - action or behaviour that we are going test
+    ResultActions response = mockMvc.perform(post("/api/v1/patients/batch")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(objectMapper.writeValueAsString(listOfPatients)));
+
+    // then - verify the result or output using assert statements
+    response.andDo(print())
+        .andExpect(status().isMultiStatus())
+        .andExpect(jsonPath("$.created", is(2)))
+        .andExpect(jsonPath("$.rejected", is(1)))
+        .andExpect(jsonPath("$.items[*].status", contains("CREATED", "REJECTED", "CREATED")))
+        .andExpect(jsonPath("$.items[1].messages", is(List.of("Patient age should be greater than 18"))));
+    assertThat(patientRepository.findAll()).extracting(Patient::getLastName).containsExactlyInAnyOrder("Kumar", "Schneider");
+  }
+
+  @Test
+  public void givenCsvFile_whenImportPatients_thenStoreValidRowsAndReportRejectedRows() throws Exception {
+    // given - precondition or setup
+    String csv = "firstName,lastName,gender,birthDay\n"
+        + "Praveen,Kumar,MALE," + LocalDate.now().minusYears(20) + "\n"
+        + "Palki,Sharma,FEMALE," + LocalDate.now().minusYears(10) + "\n"
+        + "\"Christina\",Schneider,female," + LocalDate.now().minusYears(20) + "\n"
+        + "Julian,Adamson,UNKNOWN," + LocalDate.now().minusYears(20) + "\n";
+
+    // when - action or behaviour that we are going test
+    ResultActions response = mockMvc.perform(post("/api/v1/patients/import")
+        .contentType("text/csv")
+        .content(csv));
+    String jobId = JsonPath.read(response.andReturn().getResponse().getContentAsString(), "$.id");
+
+    // then - verify the result or output using assert statements
+    response.andExpect(status().isAccepted());
+    Awaitility.await().atMost(10, TimeUnit.SECONDS).untilAsserted(() ->
+        mockMvc.perform(get("/api/v1/patients/import/{jobId}", jobId))
+            .andExpect(jsonPath("$.status", is("COMPLETED"))));
+    mockMvc.perform(get("/api/v1/patients/import/{jobId}", jobId))
+        .andDo(print())
+        .andExpect(jsonPath("$.rowsRead", is(4)))
+        .andExpect(jsonPath("$.imported", is(2)))
+        .andExpect(jsonPath("$.rejected", is(2)))
+        .andExpect(jsonPath("$.rejections[*].line", containsInAnyOrder(3, 5)));
+    assertThat(patientRepository.findAll()).extracting(Patient::getLastName).containsExactlyInAnyOrder("Kumar", "Schneider");
+  }
+
   @Test
   public void givenPatientId_whenDeletePatient_thenReturn200() throws Exception {
     // given - precondition or setup
@@ -207,6 +709,27 @@ public class PatientControllerIntegrationTests {
         .andExpect(jsonPath("$", is("Patient deleted successfully")));
   }
 
+  @Test
+  public void givenCachedPatients_whenDeletePatient_thenEvictOnlyTheDeletedPatientFromSecondLevelCache() throws Exception {
+    // given - precondition or setup
+    Patient patient = patientRepository.save(Patient.builder()
+        .firstName("Praveen").lastName("Kumar").gender(Gender.MALE).birthDay(LocalDate.now().minusYears(20))
+        .build());
+    Patient otherPatient = patientRepository.save(Patient.builder()
+        .firstName("Palki").lastName("Sharma").gender(Gender.FEMALE).birthDay(LocalDate.now().minusYears(20))
+        .build());
+    assertThat(entityManagerFactory.getCache().contains(Patient.class, otherPatient.getId())).isTrue();
+
+    // when -  action or the behaviour that we are going test
+    ResultActions response = mockMvc.perform(delete("/api/v1/patients/{id}", patient.getId()));
+
+    // then - verify the output
+    response.andExpect(status().isOk());
+    mockMvc.perform(get("/api/v1/patients/{id}", patient.getId())).andExpect(status().isNotFound());
+    assertThat(entityManagerFactory.getCache().contains(Patient.class, otherPatient.getId())).isTrue();
+    assertThat(patientRepository.findAll()).extracting(Patient::getId).containsExactly(otherPatient.getId());
+  }
+
   @Test
   public void givenInvalidPatientId_whenDeletePatient_thenReturnNotFound() throws Exception {
     // given - precondition or setup
@@ -221,4 +744,26 @@ public class PatientControllerIntegrationTests {
         .andExpect(jsonPath("$.messages", is(List.of(String.format("Patient with Id %s not found", nonExistentPatientId)))));
   }
 
+  @Test
+  public void givenPatientIds_whenDeletePatients_thenDeleteExistingPatients() throws Exception {
+    // given - precondition or setup
+    Patient patient = patientRepository.save(Patient.builder()
+        .firstName("Praveen").lastName("Kumar").gender(Gender.MALE).birthDay(LocalDate.now().minusYears(20))
+        .build());
+    Patient patient2 = patientRepository.save(Patient.builder()
+        .firstName("Palki").lastName("Sharma").gender(Gender.FEMALE).birthDay(LocalDate.now().minusYears(20))
+        .build());
+    mockMvc.perform(get("/api/v1/patients/{id}", patient.getId())).andExpect(status().isOk());
+
+    // when -  action or the behaviour that we are going test
+    ResultActions response = mockMvc.perform(delete("/api/v1/patients")
+        .param("ids", patient.getId() + "," + (patient2.getId() + 1000)));
+
+    // then - verify the output
+    response.andExpect(status().isOk())
+        .andDo(print())
+        .andExpect(jsonPath("$", is("1 patients deleted successfully")));
+    mockMvc.perform(get("/api/v1/patients/{id}", patient.getId())).andExpect(status().isNotFound());
+    assertThat(patientRepository.findAll()).extracting(Patient::getId).containsExactly(patient2.getId());
+  }
 }
@@ -6,16 +6,30 @@ import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.containsInRelativeOrder;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
-import static org.mockito.BDDMockito.willDoNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.data.handler.patientdata.Gender;
+import com.data.handler.patientdata.cache.PatientJsonCache;
+import com.data.handler.patientdata.cohort.PatientCohortSnapshots;
+import com.data.handler.patientdata.exception.PayloadTooLargeException;
+import com.data.handler.patientdata.exception.ServiceUnavailableException;
 import com.data.handler.patientdata.model.Patient;
+import com.data.handler.patientdata.model.PatientBatchItemResult;
+import com.data.handler.patientdata.model.PatientBatchItemResult.Status;
+import com.data.handler.patientdata.model.PatientBatchResult;
+import com.data.handler.patientdata.model.PatientPage;
+import com.data.handler.patientdata.model.PatientView;
+import com.data.handler.patientdata.model.PatientsFingerprint;
+import com.data.handler.patientdata.service.PatientImportService;
 import com.data.handler.patientdata.service.PatientService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.jayway.jsonpath.JsonPath;
@@ -31,11 +45,12 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 
-@WebMvcTest
+@WebMvcTest(PatientController.class)
 public class PatientControllerTests {
 
   @Autowired
@@ -44,6 +59,15 @@ public class PatientControllerTests {
   @MockBean
   private PatientService patientService;
 
+  @MockBean
+  private PatientImportService patientImportService;
+
+  @MockBean
+  private PatientCohortSnapshots patientCohortSnapshots;
+
+  @MockBean
+  private PatientJsonCache patientJsonCache;
+
   @Autowired
   private ObjectMapper objectMapper;
 
@@ -62,7 +86,9 @@ public class PatientControllerTests {
         .build());
     listOfPatients = listOfPatients.stream()
         .sorted(Comparator.comparing(Patient::getLastName)).collect(Collectors.toList());
-    given(patientService.getAllPatientsOrderByLastNameAsc()).willReturn(Optional.of(listOfPatients));
+    given(patientService.getPatientsFingerprint()).willReturn(new PatientsFingerprint(3L, 3L, 0L));
+    given(patientService.getAllPatientsOrderByLastNameAsc())
+        .willReturn(Optional.of(listOfPatients.stream().map(PatientView::of).collect(Collectors.toList())));
 
     // when -  action or the behaviour that we are going test
     ResultActions response = mockMvc.perform(get("/api/v1/patients"));
@@ -70,11 +96,34 @@ public class PatientControllerTests {
     // then - verify the output
     response.andExpect(status().isOk())
         .andDo(print())
+        .andExpect(header().string(HttpHeaders.ETAG, "W/\"patients-3-3-0-json\""))
+        .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
         .andExpect(jsonPath("$.size()", is(listOfPatients.size())))
         .andExpect(jsonPath("$[*].lastName", containsInRelativeOrder("Kumar","Schneider","Sharma")));
   }
 
 
+  @Test
+  public void givenCursor_whenGetPatientsPage_thenReturnPageWithNextCursor() throws Exception {
+    // given - precondition or setup
+    List<PatientView> listOfPatients = List.of(PatientView.of(Patient.builder()
+        .id(1l).firstName("Praveen").lastName("Kumar").gender(Gender.MALE).birthDay(LocalDate.now().minusYears(20))
+        .build()));
+    given(patientService.getPatientsPageOrderByLastNameAsc("abc", 1)).willReturn(new PatientPage(listOfPatients, "def"));
+
+    // when -  action or the behaviour that we are going test
+    ResultActions response = mockMvc.perform(get("/api/v1/patients/paged")
+        .param("cursor", "abc")
+        .param("size", "1"));
+
+    // then - verify the output
+    response.andExpect(status().isOk())
+        .andDo(print())
+        .andExpect(jsonPath("$.patients.size()", is(1)))
+        .andExpect(jsonPath("$.patients[0].lastName", is("Kumar")))
+        .andExpect(jsonPath("$.nextCursor", is("def")));
+  }
+
   @Test
   public void givenListOfPatients_whenGetAllFemalePatients_thenReturnFemalePatientsList() throws Exception {
     // given - precondition or setup
@@ -85,7 +134,8 @@ public class PatientControllerTests {
     listOfPatients.add(Patient.builder()
         .id(3l).firstName("Christina").lastName("Schneider").gender(Gender.FEMALE).birthDay(LocalDate.now().minusYears(20))
         .build());
-    given(patientService.getListOfFemalePatients()).willReturn(Optional.of(listOfPatients));
+    given(patientService.getListOfFemalePatients())
+        .willReturn(Optional.of(listOfPatients.stream().map(PatientView::of).collect(Collectors.toList())));
 
     // when -  action or the behaviour that we are going test
     ResultActions response = mockMvc.perform(get("/api/v1/patients/female"));
@@ -106,7 +156,9 @@ public class PatientControllerTests {
     long patientId = 1L;
     Patient patient = Patient.builder()
         .id(patientId).firstName("Praveen").lastName("Kumar").gender(Gender.MALE).birthDay(LocalDate.now().minusYears(20))
+        .version(0L)
         .build();
+    given(patientService.findPatientVersionById(patientId)).willReturn(Optional.of(0L));
     given(patientService.findPatientById(patientId)).willReturn(Optional.of(patient));
 
     // when -  action or the behaviour that we are going test
@@ -121,6 +173,25 @@ public class PatientControllerTests {
         .andExpect(jsonPath("$.birthDay", is(patient.getBirthDay().toString())));
   }
 
+  @Test
+  public void givenUnchangedPatientVersion_whenGetPatientByIdIfNoneMatch_thenReturnNotModifiedWithoutLoading() throws Exception {
+    // given - precondition or setup
+    long patientId = 1L;
+    given(patientService.findPatientVersionById(patientId)).willReturn(Optional.of(2L));
+
+    // when -  action or the behaviour that we are going test
+    ResultActions response = mockMvc.perform(get("/api/v1/patients/{id}", patientId)
+        .header(HttpHeaders.IF_NONE_MATCH, "W/\"patient-1-1-json\", W/\"patient-1-2-json\""));
+
+    // then - verify the output
+    response.andExpect(status().isNotModified())
+        .andDo(print())
+        .andExpect(header().string(HttpHeaders.ETAG, "W/\"patient-1-2-json\""))
+        .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+        .andExpect(content().string(""));
+    verify(patientService, never()).findPatientById(patientId);
+  }
+
   @Test
   public void givenInvalidPatientId_whenGetPatientById_thenReturnEmpty() throws Exception {
     // given - precondition or setup
@@ -143,7 +214,7 @@ public class PatientControllerTests {
     Patient patient = Patient.builder()
         .id(1l).firstName("Praveen").lastName("Kumar").gender(Gender.MALE).birthDay(LocalDate.now().minusYears(20))
         .build();
-    given(patientService.findPatientByFirstNameAndLastName("Praveen", "Kumar")).willReturn(Optional.of(List.of(patient)));
+    given(patientService.findPatientByFirstNameAndLastName("Praveen", "Kumar")).willReturn(Optional.of(List.of(PatientView.of(patient))));
 
     // when -  action or the behaviour that we are going test
     ResultActions response = mockMvc.perform(get("/api/v1/patients/byName")
@@ -186,15 +257,37 @@ public class PatientControllerTests {
             is(patient.getBirthDay().toString())));
   }
 
+  @Test
+  public void givenListOfPatientsWithInvalidPatient_whenCreatePatients_thenReturnMultiStatus() throws Exception {
+    // given - precondition or setup
+    List<Patient> listOfPatients = List.of(
+        Patient.builder().firstName("Praveen").lastName("Kumar").gender(Gender.MALE).birthDay(LocalDate.now().minusYears(20))
+            .build(),
+        Patient.builder().firstName("Palki").lastName("Sharma").gender(Gender.FEMALE).birthDay(LocalDate.now().minusYears(10))
+            .build());
+    given(patientService.createPatients(any())).willReturn(new PatientBatchResult(1, 1, List.of(
+        new PatientBatchItemResult(0, 1L, Status.CREATED, List.of()),
+        new PatientBatchItemResult(1, null, Status.REJECTED, List.of("Patient age should be greater than 18")))));
+
+    // when -  action or the behaviour that we are going test
+    ResultActions response = mockMvc.perform(post("/api/v1/patients/batch")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(objectMapper.writeValueAsString(listOfPatients)));
+
+    // then - verify the output
+    response.andDo(print())
+        .andExpect(status().isMultiStatus())
+        .andExpect(jsonPath("$.created", is(1)))
+        .andExpect(jsonPath("$.rejected", is(1)))
+        .andExpect(jsonPath("$.items[1].status", is("REJECTED")))
+        .andExpect(jsonPath("$.items[1].messages", is(List.of("Patient age should be greater than 18"))));
+  }
+
   @Test
   public void givenPatientId_whenDeletePatient_thenReturn200() throws Exception {
     // given - precondition or setup
     long patientId = 1L;
-    Patient patient = Patient.builder()
-        .id(patientId).firstName("Praveen").lastName("Kumar").gender(Gender.MALE).birthDay(LocalDate.now().minusYears(20))
-        .build();
-    given(patientService.findPatientById(patientId)).willReturn(Optional.of(patient));
-    willDoNothing().given(patientService).deletePatient(any(Patient.class));
+    given(patientService.deletePatientById(patientId)).willReturn(true);
 
     // when -  action or the behaviour that we are going test
     ResultActions response = mockMvc.perform(delete("/api/v1/patients/{id}", patientId));
@@ -209,8 +302,7 @@ public class PatientControllerTests {
   public void givenInvalidPatientId_whenDeletePatient_thenReturnNotFound() throws Exception {
     // given - precondition or setup
     long patientId = 1L;
-    given(patientService.findPatientById(patientId)).willReturn(Optional.empty());
-    willDoNothing().given(patientService).deletePatient(any(Patient.class));
+    given(patientService.deletePatientById(patientId)).willReturn(false);
 
     // when -  action or the behaviour that we are going test
     ResultActions response = mockMvc.perform(delete("/api/v1/patients/{id}", patientId));
@@ -220,4 +312,51 @@ public class PatientControllerTests {
         .andDo(print())
         .andExpect(jsonPath("$.messages", is(List.of("Patient with Id 1 not found"))));
   }
+
+  @Test
+  public void givenPatientIds_whenDeletePatients_thenReturnNumberOfDeletedPatients() throws Exception {
+    // given - precondition or setup
+    given(patientService.deletePatientsByIds(List.of(1L, 2L, 3L))).willReturn(2);
+
+    // when -  action or the behaviour that we are going test
+    ResultActions response = mockMvc.perform(delete("/api/v1/patients").param("ids", "1,2,3"));
+
+    // then - verify the output
+    response.andExpect(status().isOk())
+        .andDo(print())
+        .andExpect(jsonPath("$", is("2 patients deleted successfully")));
+  }
+
+  @Test
+  public void givenTooManyImports_whenImportPatients_thenReturnServiceUnavailable() throws Exception {
+    // given - precondition or setup
+    given(patientImportService.startImport(any(), any()))
+        .willThrow(new ServiceUnavailableException("Too many imports in progress, retry later"));
+
+    // when -  action or the behaviour that we are going test
+    ResultActions response = mockMvc.perform(post("/api/v1/patients/import").contentType("text/csv")
+        .content("firstName,lastName,gender,birthDay\nChristina,Schneider,FEMALE,2002-06-18\n"));
+
+    // then - verify the output
+    response.andExpect(status().isServiceUnavailable())
+        .andDo(print())
+        .andExpect(header().exists(HttpHeaders.RETRY_AFTER))
+        .andExpect(jsonPath("$.messages", is(List.of("Too many imports in progress, retry later"))));
+  }
+
+  @Test
+  public void givenImportFileOverMaxBytes_whenImportPatients_thenReturnPayloadTooLarge() throws Exception {
+    // given - precondition or setup
+    given(patientImportService.startImport(any(), any()))
+        .willThrow(new PayloadTooLargeException("Import files are limited to 16 bytes"));
+
+    // when -  action or the behaviour that we are going test
+    ResultActions response = mockMvc.perform(post("/api/v1/patients/import").contentType("text/csv")
+        .content("firstName,lastName,gender,birthDay\nChristina,Schneider,FEMALE,2002-06-18\n"));
+
+    // then - verify the output
+    response.andExpect(status().isPayloadTooLarge())
+        .andDo(print())
+        .andExpect(jsonPath("$.messages", is(List.of("Import files are limited to 16 bytes"))));
+  }
 }
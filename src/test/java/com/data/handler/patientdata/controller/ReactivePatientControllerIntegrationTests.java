@@ -0,0 +1,97 @@
+package com.data.handler.patientdata.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.data.handler.patientdata.Gender;
+import com.data.handler.patientdata.model.Patient;
+import com.data.handler.patientdata.model.PatientView;
+import com.data.handler.patientdata.repository.PatientRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+public class ReactivePatientControllerIntegrationTests {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Autowired
+  private PatientRepository patientRepository;
+
+  @BeforeEach
+  public void setup() {
+    patientRepository.deleteAll();
+    List<Patient> listOfPatients = new ArrayList<>();
+    listOfPatients.add(Patient.builder()
+        .firstName("Praveen").lastName("Kumar").gender(Gender.MALE).birthDay(LocalDate.now().minusYears(20))
+        .build());
+    listOfPatients.add(Patient.builder()
+        .firstName("Palki").lastName("Sharma").gender(Gender.FEMALE).birthDay(LocalDate.now().minusYears(20))
+        .build());
+    listOfPatients.add(Patient.builder()
+        .firstName("Christina").lastName("Schneider").gender(Gender.FEMALE).birthDay(LocalDate.now().minusYears(20))
+        .build());
+    patientRepository.saveAll(listOfPatients);
+  }
+
+  @Test
+  public void givenListOfPatients_whenGetAllPatientsReactive_thenStreamPatientsAsNdjsonSorted() throws Exception {
+    // when -  action or the behaviour that we are going test
+    List<PatientView> patients = streamPatients("/api/v1/reactive/patients");
+
+    // then - verify the output
+    assertThat(patients).extracting(PatientView::getLastName).containsExactly("Kumar", "Schneider", "Sharma");
+    assertThat(patients.get(0).getCreatedOn()).isEqualTo(LocalDate.now());
+  }
+
+  @Test
+  public void givenListOfPatients_whenGetFemalePatientsReactive_thenStreamFemalePatientsOnly() throws Exception {
+    // when -  action or the behaviour that we are going test
+    List<PatientView> patients = streamPatients("/api/v1/reactive/patients/female");
+
+    // then - verify the output
+    assertThat(patients).extracting(PatientView::getLastName).containsExactly("Schneider", "Sharma");
+    assertThat(patients).extracting(PatientView::getGender).containsOnly(Gender.FEMALE);
+  }
+
+  private List<PatientView> streamPatients(String url) throws Exception {
+    MvcResult result = mockMvc.perform(get(url).accept(MediaType.APPLICATION_NDJSON))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+    ResultActions response = mockMvc.perform(asyncDispatch(result));
+    response.andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.APPLICATION_NDJSON));
+    return Arrays.stream(result.getResponse().getContentAsString().split("\n"))
+        .map(line -> {
+          try {
+            return objectMapper.readValue(line, PatientView.class);
+          } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+          }
+        })
+        .collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,113 @@
+package com.data.handler.patientdata.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.boot.test.context.ConfigDataApplicationContextInitializer;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+public class SqlTraceTurboFilterTests {
+
+  private final LoggerContext loggerContext = new LoggerContext();
+
+  private Logger sqlLogger;
+
+  private Logger otherLogger;
+
+  @BeforeEach
+  public void setup() {
+    SqlTraceTurboFilter turboFilter = new SqlTraceTurboFilter();
+    turboFilter.start();
+    loggerContext.addTurboFilter(turboFilter);
+    loggerContext.getLogger(Logger.ROOT_LOGGER_NAME).setLevel(Level.INFO);
+    sqlLogger = loggerContext.getLogger("org.hibernate.SQL");
+    otherLogger = loggerContext.getLogger("org.hibernate.type.descriptor.sql.BasicBinder");
+  }
+
+  @AfterEach
+  public void tearDown() {
+    MDC.clear();
+  }
+
+  @Test
+  public void givenUnmarkedThread_whenCheckSqlLogger_thenDebugDisabled() {
+    assertThat(sqlLogger.isDebugEnabled()).isFalse();
+  }
+
+  @Test
+  public void givenSqlTraceHeader_whenFilterRequest_thenSqlLoggerEnabledDuringRequestOnly() throws Exception {
+    // given - precondition or setup
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/patients");
+    request.addHeader(SqlTraceFilter.SQL_TRACE_HEADER, "true");
+    AtomicBoolean sqlDebugEnabled = new AtomicBoolean();
+    AtomicBoolean otherDebugEnabled = new AtomicBoolean();
+
+    // when -  action or the behaviour that we are going test
+    new SqlTraceFilter().doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+      sqlDebugEnabled.set(sqlLogger.isDebugEnabled());
+      otherDebugEnabled.set(otherLogger.isDebugEnabled());
+    });
+
+    // then - verify the output
+    assertThat(sqlDebugEnabled).isTrue();
+    assertThat(otherDebugEnabled).isFalse();
+    assertThat(sqlLogger.isDebugEnabled()).isFalse();
+  }
+
+  @Test
+  public void givenNoSqlTraceHeader_whenFilterRequest_thenSqlLoggerStaysDisabled() throws Exception {
+    // given - precondition or setup
+    AtomicBoolean sqlDebugEnabled = new AtomicBoolean(true);
+
+    // when -  action or the behaviour that we are going test
+    new SqlTraceFilter().doFilter(new MockHttpServletRequest("GET", "/api/v1/patients"), new MockHttpServletResponse(),
+        (req, res) -> sqlDebugEnabled.set(sqlLogger.isDebugEnabled()));
+
+    // then - verify the output
+    assertThat(sqlDebugEnabled).isFalse();
+  }
+
+  @Test
+  public void givenDefaultProperties_whenStartContext_thenSqlTraceFilterIsNotRegistered() {
+    // given - precondition or setup
+    ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+        .withInitializer(new ConfigDataApplicationContextInitializer())
+        .withUserConfiguration(SqlTraceConfig.class);
+
+    // when -  action or the behaviour that we are going test
+
+    // then - verify the output
+    contextRunner.run(context -> assertThat(context).doesNotHaveBean(SqlTraceFilter.class));
+  }
+
+  @Test
+  public void givenDevProfile_whenStartContext_thenSqlTraceFilterIsRegistered() {
+    // given - precondition or setup
+    ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+        .withSystemProperties("spring.profiles.active=dev")
+        .withInitializer(new ConfigDataApplicationContextInitializer())
+        .withUserConfiguration(SqlTraceConfig.class);
+
+    // when -  action or the behaviour that we are going test
+
+    // then - verify the output
+    contextRunner.run(context -> assertThat(context).hasSingleBean(SqlTraceFilter.class));
+  }
+
+  // imported so that the condition of the filter is evaluated once the application properties are loaded
+  @Configuration
+  @Import(SqlTraceFilter.class)
+  static class SqlTraceConfig {
+  }
+}
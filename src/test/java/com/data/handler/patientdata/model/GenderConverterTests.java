@@ -0,0 +1,52 @@
+package com.data.handler.patientdata.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.data.handler.patientdata.Gender;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.lang.management.ManagementFactory;
+import org.junit.jupiter.api.Test;
+
+public class GenderConverterTests {
+
+  private final GenderConverter converter = new GenderConverter();
+
+  @Test
+  public void givenDatabaseValue_whenConvertToEntityAttribute_thenReturnGenderIgnoringCase() {
+    assertEquals(Gender.FEMALE, converter.convertToEntityAttribute("FEMALE"));
+    assertEquals(Gender.MALE, converter.convertToEntityAttribute("male"));
+    assertEquals(Gender.OTHER, converter.convertToEntityAttribute("Other"));
+    assertNull(converter.convertToEntityAttribute(null));
+    assertThrows(IllegalArgumentException.class, () -> converter.convertToEntityAttribute("UNKNOWN"));
+  }
+
+  @Test
+  public void givenGender_whenConvertToDatabaseColumn_thenReturnGenderValue() {
+    assertEquals("FEMALE", converter.convertToDatabaseColumn(Gender.FEMALE));
+    assertNull(converter.convertToDatabaseColumn(null));
+  }
+
+  @Test
+  public void givenJsonValue_whenDeserialize_thenReturnGenderIgnoringCase() throws Exception {
+    assertEquals(Gender.FEMALE, new ObjectMapper().readValue("\"female\"", Gender.class));
+  }
+
+  @Test
+  public void givenDatabaseValues_whenConvertToEntityAttribute_thenNoAllocationPerConversion() {
+    com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long threadId = Thread.currentThread().getId();
+    int conversions = 100_000;
+
+    long allocatedBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+    for (int i = 0; i < conversions; i++) {
+      converter.convertToEntityAttribute("female");
+    }
+    long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+    // a conversion streaming over Gender.values() allocated well above 100 bytes, the allowance only covers the measurement
+    assertThat(allocated).isLessThan(conversions);
+  }
+}
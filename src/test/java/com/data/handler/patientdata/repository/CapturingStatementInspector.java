@@ -0,0 +1,31 @@
+package com.data.handler.patientdata.repository;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Records the statements hibernate prepares, registered with the hibernate.session_factory.statement_inspector property so
+ * the tests can check the query plans of the SQL hibernate really generates.
+ */
+public class CapturingStatementInspector implements StatementInspector {
+
+  private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+  @Override
+  public String inspect(String sql) {
+    STATEMENTS.add(sql);
+    return sql;
+  }
+
+  public static void clear() {
+    STATEMENTS.clear();
+  }
+
+  /**
+   * @return the statements prepared since the last {@link #clear()}
+   */
+  public static List<String> statements() {
+    return List.copyOf(STATEMENTS);
+  }
+}
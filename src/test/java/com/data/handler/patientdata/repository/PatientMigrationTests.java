@@ -0,0 +1,79 @@
+package com.data.handler.patientdata.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+public class PatientMigrationTests {
+
+  private DriverManagerDataSource dataSource;
+
+  private JdbcTemplate jdbcTemplate;
+
+  @BeforeEach
+  public void setup() {
+    dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + getClass().getSimpleName() + System.nanoTime()
+        + ";DB_CLOSE_DELAY=-1", "sa", "password");
+    jdbcTemplate = new JdbcTemplate(dataSource);
+  }
+
+  @DisplayName("JUnit test for the migration of a schema previously generated by hibernate")
+  @Test
+  public void givenSchemaGeneratedByHibernate_whenMigrate_thenPatientSeqIsCreatedPastTheHandedOutIds() {
+
+    // given - precondition or setup
+    jdbcTemplate.execute("create sequence hibernate_sequence start with 1 increment by 1");
+    jdbcTemplate.execute("create table patient (id bigint not null, birthday date, created_on date, "
+        + "first_name varchar(255), gender varchar(255), last_name varchar(255), primary key (id))");
+    for (int i = 0; i < 3; i++) {
+      jdbcTemplate.update("insert into patient (id, first_name, last_name, gender) "
+          + "values (next value for hibernate_sequence, 'Praveen', 'Kumar', 'M')");
+    }
+    Long deletedId = jdbcTemplate.queryForObject("select next value for hibernate_sequence", Long.class);
+
+    // when -  action or the behaviour that we are going test
+    MigrateResult result = Flyway.configure()
+        .dataSource(dataSource)
+        .locations("classpath:db/migration/h2")
+        .baselineOnMigrate(true)
+        .baselineVersion("1")
+        .load()
+        .migrate();
+
+    // then - verify the output
+    assertThat(result.success).isTrue();
+    assertThat(result.initialSchemaVersion).isEqualTo("1");
+    assertThat(jdbcTemplate.queryForObject(
+        "select increment from information_schema.sequences where sequence_name = 'PATIENT_SEQ'", Long.class))
+        .isEqualTo(50L);
+    assertThat(jdbcTemplate.queryForObject("select next value for patient_seq", Long.class)).isGreaterThan(deletedId);
+    assertThat(jdbcTemplate.queryForObject("select count(*) from patient where version = 0", Long.class)).isEqualTo(3L);
+  }
+
+  @DisplayName("JUnit test for the migration of an empty database")
+  @Test
+  public void givenEmptyDatabase_whenMigrate_thenPatientSeqStartsAtOne() {
+
+    // given - precondition or setup
+    Flyway flyway = Flyway.configure()
+        .dataSource(dataSource)
+        .locations("classpath:db/migration/h2")
+        .baselineOnMigrate(true)
+        .baselineVersion("1")
+        .load();
+
+    // when -  action or the behaviour that we are going test
+    MigrateResult result = flyway.migrate();
+
+    // then - verify the output
+    assertThat(result.success).isTrue();
+    assertThat(result.migrationsExecuted).isEqualTo(flyway.info().all().length);
+    assertThat(jdbcTemplate.queryForObject("select next value for patient_seq", Long.class)).isEqualTo(1L);
+  }
+}
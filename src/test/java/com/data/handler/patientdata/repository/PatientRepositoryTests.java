@@ -7,24 +7,47 @@ import static org.mockito.Mockito.mockStatic;
 
 import com.data.handler.patientdata.Gender;
 import com.data.handler.patientdata.model.Patient;
+import com.data.handler.patientdata.model.PatientFilter;
+import com.data.handler.patientdata.model.PatientView;
+import com.data.handler.patientdata.model.PooledLoSequenceGenerator;
 import com.data.handler.patientdata.util.PatientUtil;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.enhanced.PooledLoOptimizer;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.MethodSource;
 import org.mockito.MockedStatic;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+    + "com.data.handler.patientdata.repository.CapturingStatementInspector")
 public class PatientRepositoryTests {
 
   @Autowired
   private PatientRepository patientRepository;
 
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
   private Patient patient;
 
   @BeforeEach
@@ -34,6 +57,29 @@ public class PatientRepositoryTests {
         .build();
   }
 
+  @DisplayName("JUnit test for the pooled-lo generation of the patient ids")
+  @Test
+  public void givenPatientsList_whenSaveAll_thenIdsComeFromPooledLoSequenceBlock() {
+
+    // given - precondition or setup
+    SequenceStyleGenerator generator = (SequenceStyleGenerator) entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+        .getMetamodel().entityPersister(Patient.class).getIdentifierGenerator();
+    List<Patient> patients = List.of(patient, Patient.builder()
+        .firstName("Palki").lastName("Sharma").gender(Gender.FEMALE).birthDay(LocalDate.now().minusYears(20))
+        .build());
+
+    // when -  action or the behaviour that we are going test
+    List<Patient> savedPatients = patientRepository.saveAll(patients);
+    Long nextSequenceValue = jdbcTemplate.queryForObject(
+        "select base_value from information_schema.sequences where sequence_name = 'PATIENT_SEQ'", Long.class);
+
+    // then - verify the output
+    assertThat(generator.getOptimizer()).isInstanceOf(PooledLoOptimizer.class);
+    assertThat(generator.getOptimizer().getIncrementSize()).isEqualTo(PooledLoSequenceGenerator.DEFAULT_ALLOCATION_SIZE);
+    assertThat(savedPatients.get(1).getId()).isEqualTo(savedPatients.get(0).getId() + 1);
+    assertThat(savedPatients.get(1).getId()).isLessThan(nextSequenceValue);
+  }
+
   @DisplayName("JUnit test for get all patients operation")
   @Test
   public void givenPatientsList_whenFindAll_thenPatientsList() {
@@ -88,6 +134,90 @@ public class PatientRepositoryTests {
 
   }
 
+  @DisplayName("JUnit test for get all female patients with the gender filter")
+  @Test
+  public void givenPatientsList_whenFindAllFemalePatientViews_thenReturnFemalePatientViewsSorted() {
+
+    // given - precondition or setup
+    Patient patient1 = Patient.builder()
+        .firstName("Sameera").lastName("Key").gender(Gender.FEMALE).birthDay(LocalDate.now().minusYears(20))
+        .build();
+    Patient patient2 = Patient.builder()
+        .firstName("Julian").lastName("Adamson").gender(Gender.FEMALE).birthDay(LocalDate.now().minusYears(25))
+        .build();
+
+    patientRepository.save(patient);
+    patientRepository.save(patient1);
+    patientRepository.save(patient2);
+
+    // when -  action or the behaviour that we are going test
+    List<PatientView> patientList = patientRepository.findAllViews(
+        PatientSpecifications.matching(PatientFilter.builder().gender(Gender.FEMALE).build()), Pageable.unpaged());
+
+    // then - verify the output
+    assertThat(patientList).containsExactly(PatientView.of(patient2), PatientView.of(patient1));
+  }
+
+  @DisplayName("JUnit test for filtering patients by birth date range and last name prefix")
+  @Test
+  public void givenPatientsList_whenFindAllViewsMatchingFilter_thenReturnOnlyMatchingPatients() {
+
+    // given - precondition or setup
+    Patient youngAdamson = Patient.builder()
+        .firstName("Julian").lastName("Adamson").gender(Gender.MALE).birthDay(LocalDate.now().minusYears(25))
+        .build();
+    Patient oldAdams = Patient.builder()
+        .firstName("Sameera").lastName("Adams").gender(Gender.FEMALE).birthDay(LocalDate.now().minusYears(60))
+        .build();
+    Patient youngA_dams = Patient.builder()
+        .firstName("Palki").lastName("A_dams").gender(Gender.FEMALE).birthDay(LocalDate.now().minusYears(30))
+        .build();
+    Patient youngKey = Patient.builder()
+        .firstName("Sameera").lastName("Key").gender(Gender.FEMALE).birthDay(LocalDate.now().minusYears(30))
+        .build();
+    patientRepository.saveAll(List.of(youngAdamson, oldAdams, youngA_dams, youngKey));
+    PatientFilter filter = PatientFilter.builder()
+        .birthDayFrom(LocalDate.now().minusYears(40)).birthDayTo(LocalDate.now().minusYears(20))
+        .lastNamePrefix("Ad")
+        .build();
+
+    // when -  action or the behaviour that we are going test
+    List<PatientView> patientList = patientRepository.findAllViews(PatientSpecifications.matching(filter), Pageable.unpaged());
+    List<PatientView> underscorePrefixList = patientRepository.findAllViews(
+        PatientSpecifications.matching(PatientFilter.builder().lastNamePrefix("A_").build()), Pageable.unpaged());
+
+    // then - verify the output
+    assertThat(patientList).extracting(PatientView::getId).containsExactly(youngAdamson.getId());
+    assertThat(underscorePrefixList).extracting(PatientView::getId).containsExactly(youngA_dams.getId());
+  }
+
+  @DisplayName("JUnit test for keyset pagination of patients ordered by last name")
+  @Test
+  public void givenPatientsList_whenFindAllAfterPosition_thenReturnNextPage() {
+
+    // given - precondition or setup
+    Patient patient2 = Patient.builder()
+        .firstName("Palki").lastName("Sharma").gender(Gender.FEMALE).birthDay(LocalDate.now().minusYears(20))
+        .build();
+    Patient patient3 = Patient.builder()
+        .firstName("Christina").lastName("Kumar").gender(Gender.FEMALE).birthDay(LocalDate.now().minusYears(20))
+        .build();
+
+    patientRepository.save(patient2);
+    patientRepository.save(patient);
+    patientRepository.save(patient3);
+
+    // when -  action or the behaviour that we are going test
+    List<PatientView> firstPage = patientRepository.findAllByOrderByLastNameAscIdAsc(PageRequest.of(0, 2));
+    PatientView lastOfFirstPage = firstPage.get(firstPage.size() - 1);
+    List<PatientView> secondPage = patientRepository.findAllAfterOrderByLastNameAscIdAsc(
+        lastOfFirstPage.getLastName(), lastOfFirstPage.getId(), PageRequest.of(0, 2));
+
+    // then - verify the output
+    assertThat(firstPage).extracting(PatientView::getId).containsExactly(patient.getId(), patient3.getId());
+    assertThat(secondPage).extracting(PatientView::getId).containsExactly(patient2.getId());
+  }
+
   @DisplayName("JUnit test for get patient by id operation")
   @Test
   public void givenPatientObject_whenFindById_thenReturnPatientObject() {
@@ -147,6 +277,22 @@ public class PatientRepositoryTests {
     assertThat(patientOptional).isEmpty();
   }
 
+  @DisplayName("JUnit test for delete patient by id operation without loading it")
+  @Test
+  public void givenPatientObject_whenDeleteAllByIdIn_thenReturnDeletedCount() {
+    // given - precondition or setup
+    patientRepository.save(patient);
+
+    // when -  action or the behaviour that we are going test
+    int deleted = patientRepository.deleteAllByIdIn(List.of(patient.getId()));
+    int deletedAgain = patientRepository.deleteAllByIdIn(List.of(patient.getId()));
+
+    // then - verify the output
+    assertThat(deleted).isEqualTo(1);
+    assertThat(deletedAgain).isEqualTo(0);
+    assertThat(patientRepository.findAll()).isEmpty();
+  }
+
   @DisplayName("JUnit test for deleting records created older than an year before")
   @Test
   public void givenPatientList_whenDeleteRecordsCreatedOlderThanOneYear_thenDelete() {
@@ -186,5 +332,48 @@ public class PatientRepositoryTests {
     assertThat(patients.get().size()).isEqualTo(2);  //One record which is created older than one year is deleted
   }
 
+  @DisplayName("JUnit test for the query plans of the SQL hibernate generates for the repository queries")
+  @ParameterizedTest
+  @MethodSource("repositoryQueries")
+  public void givenRepositoryQuery_whenExplain_thenQueryPlanUsesIndex(Consumer<PatientRepository> query,
+                                                                      Object[] parameters, String index) {
+    // given - precondition or setup
+    CapturingStatementInspector.clear();
+    query.accept(patientRepository);
+    List<String> statements = CapturingStatementInspector.statements();
+    assertThat(statements).hasSize(1);
 
+    // when -  action or the behaviour that we are going test
+    String plan = jdbcTemplate.queryForObject("EXPLAIN " + statements.get(0), String.class, parameters);
+
+    // then - verify the output
+    assertThat(plan).contains(index);
+  }
+
+  @DisplayName("JUnit test for the query plans of the purge chunks")
+  @ParameterizedTest
+  @CsvSource(delimiter = '|', value = {
+      PurgeRepository.SELECT_FIRST_CHUNK + " | 2020-01-01",
+      PurgeRepository.SELECT_NEXT_CHUNK + " | 2020-01-01, 2019-01-01, 2019-01-01, 10"})
+  public void givenPurgeChunkQuery_whenExplain_thenQueryPlanUsesCreatedOnIdIndex(String query, String parameters) {
+    // when -  action or the behaviour that we are going test
+    String plan = jdbcTemplate.queryForObject("EXPLAIN " + query, String.class, (Object[]) parameters.split(", "));
+
+    // then - verify the output
+    assertThat(plan).contains("IDX_PATIENT_CREATED_ON_ID");
+  }
+
+  // the names are not used by the other tests, the cacheable query is not answered from the query cache
+  private static Stream<Arguments> repositoryQueries() {
+    return Stream.of(
+        Arguments.of((Consumer<PatientRepository>) repository ->
+                repository.findAllByGenderOrderByLastNameAsc(Gender.FEMALE),
+            new Object[] {Gender.FEMALE.getGender()}, "IDX_PATIENT_GENDER_LAST_NAME"),
+        Arguments.of((Consumer<PatientRepository>) repository ->
+                repository.findAllByFirstNameAndLastNameOrderByLastNameAsc("Explain", "Plan"),
+            new Object[] {"Explain", "Plan"}, "IDX_PATIENT_LAST_NAME_FIRST_NAME"),
+        Arguments.of((Consumer<PatientRepository>) repository ->
+                repository.findAllViewsByFirstNameAndLastNameOrderByLastNameAsc("Explain", "Plan"),
+            new Object[] {"Explain", "Plan"}, "IDX_PATIENT_LAST_NAME_FIRST_NAME"));
+  }
 }
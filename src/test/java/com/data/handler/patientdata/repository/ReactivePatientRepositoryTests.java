@@ -0,0 +1,42 @@
+package com.data.handler.patientdata.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+public class ReactivePatientRepositoryTests {
+
+  @DisplayName("JUnit test for the R2DBC and JDBC urls of the same database")
+  @ParameterizedTest
+  @CsvSource(delimiter = '|', value = {
+      "r2dbc:pool:h2:mem:///patientdb?maxSize=10 | jdbc:h2:mem:patientdb",
+      "r2dbc:h2:mem:///patientdb | jdbc:h2:mem:patientdb;DB_CLOSE_DELAY=-1",
+      "r2dbc:pool:mysql://localhost:3306/patientdb?maxSize=10 | jdbc:mysql://localhost/patientdb?useSSL=false"})
+  public void givenUrlsOfTheSameDatabase_whenDatabaseOf_thenEqual(String r2dbcUrl, String jdbcUrl) {
+    // when -  action or the behaviour that we are going test
+    String database = ReactivePatientRepository.databaseOf(ConnectionFactoryOptions.parse(r2dbcUrl));
+
+    // then - verify the output
+    assertThat(database).isEqualTo(ReactivePatientRepository.databaseOf(jdbcUrl));
+  }
+
+  @DisplayName("JUnit test for an R2DBC url pointing to another database than the JDBC DataSource")
+  @Test
+  public void givenR2dbcUrlOfAnotherDatabase_whenCreateRepository_thenFailAtStartup() {
+    // given - precondition or setup
+    String r2dbcUrl = "r2dbc:pool:h2:mem:///patientdb?maxSize=10";
+    String jdbcUrl = "jdbc:mysql://localhost:3306/patientdb";
+
+    // when -  action or the behaviour that we are going test
+
+    // then - verify the output
+    assertThatThrownBy(() -> new ReactivePatientRepository(r2dbcUrl, jdbcUrl, "sa", "password"))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("patient.reactive.r2dbc.url");
+  }
+}
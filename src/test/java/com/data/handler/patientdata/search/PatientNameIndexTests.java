@@ -0,0 +1,90 @@
+package com.data.handler.patientdata.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.data.handler.patientdata.Gender;
+import com.data.handler.patientdata.event.PatientsCreatedEvent;
+import com.data.handler.patientdata.event.PatientsDeletedEvent;
+import com.data.handler.patientdata.model.Patient;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class PatientNameIndexTests {
+
+  private final PatientNameIndex patientNameIndex = new PatientNameIndex(null, null);
+
+  @BeforeEach
+  public void setup() {
+    patientNameIndex.onPatientsCreated(new PatientsCreatedEvent(List.of(
+        patient(1L, "Christina", "Schneider"),
+        patient(2L, "Christian", "Schmidt"),
+        patient(3L, "Palki", "Sharma"),
+        patient(4L, "Praveen", "Kumar"),
+        patient(5L, "Anna", "van der Berg"))));
+  }
+
+  @Test
+  public void givenIndexedPatients_whenSearchByPrefix_thenReturnPatientsWithMatchingFirstOrLastName() {
+    assertThat(patientNameIndex.search("sch", false, 10)).containsExactlyInAnyOrder(1L, 2L);
+    assertThat(patientNameIndex.search("Chris Schn", false, 10)).containsExactly(1L);
+    assertThat(patientNameIndex.search("berg", false, 10)).containsExactly(5L);
+    assertThat(patientNameIndex.search("sch", false, 1)).hasSize(1);
+    assertThat(patientNameIndex.search("xyz", false, 10)).isEmpty();
+  }
+
+  @Test
+  public void givenTypoInName_whenSearchFuzzy_thenReturnPatientsWithinEditDistance() {
+    assertThat(patientNameIndex.search("shneider", false, 10)).isEmpty();
+    assertThat(patientNameIndex.search("shneider", true, 10)).containsExactly(1L);
+    assertThat(patientNameIndex.search("kumra", true, 10)).containsExactly(4L);
+    assertThat(patientNameIndex.search("sharna", true, 10)).containsExactly(3L);
+  }
+
+  @Test
+  public void givenDeletedPatient_whenSearch_thenPatientNoLongerReturned() {
+    // when -  action or the behaviour that we are going test
+    patientNameIndex.onPatientsDeleted(new PatientsDeletedEvent(List.of(1L, 42L)));
+
+    // then - verify the output
+    assertThat(patientNameIndex.search("sch", false, 10)).containsExactly(2L);
+    assertThat(patientNameIndex.size()).isEqualTo(4);
+  }
+
+  @Test
+  public void givenLargeIndex_whenSearchShortParts_thenIntersectFromTheMostSelectivePart() {
+    // given - precondition or setup
+    patientNameIndex.onPatientsCreated(new PatientsCreatedEvent(LongStream.range(100, 100_100)
+        .mapToObj(id -> patient(id, "Anna", "Adams" + id))
+        .collect(Collectors.toList())));
+    patientNameIndex.onPatientsCreated(new PatientsCreatedEvent(List.of(patient(200_000L, "Anton", "Zed"))));
+
+    // when -  action or the behaviour that we are going test
+    Set<Long> selectiveLastPart = patientNameIndex.search("a z", false, 10);
+    Set<Long> unselectiveParts = patientNameIndex.search("a ad", false, 5);
+    Set<Long> noCommonPatient = patientNameIndex.search("an sch", false, 10);
+
+    // then - verify the output
+    assertThat(selectiveLastPart).containsExactly(200_000L);
+    assertThat(unselectiveParts).hasSize(5).allMatch(id -> id >= 100 && id < 100_100);
+    assertThat(noCommonPatient).isEmpty();
+  }
+
+  @Test
+  public void givenTermAndPart_whenPrefixEditDistance_thenReturnDistanceToClosestPrefix() {
+    assertThat(PatientNameIndex.prefixEditDistance("schn", "schneider", 1)).isZero();
+    assertThat(PatientNameIndex.prefixEditDistance("shne", "schneider", 1)).isEqualTo(1);
+    assertThat(PatientNameIndex.prefixEditDistance("kumra", "kumar", 2)).isEqualTo(1);
+    assertThat(PatientNameIndex.prefixEditDistance("xyz", "kumar", 1)).isEqualTo(2);
+  }
+
+  private static Patient patient(Long id, String firstName, String lastName) {
+    return Patient.builder()
+        .id(id).firstName(firstName).lastName(lastName).gender(Gender.FEMALE).birthDay(LocalDate.now().minusYears(30))
+        .build();
+  }
+}
@@ -0,0 +1,145 @@
+package com.data.handler.patientdata.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.mock;
+
+import com.data.handler.patientdata.constraints.NewPatientValidator;
+import com.data.handler.patientdata.exception.PayloadTooLargeException;
+import com.data.handler.patientdata.exception.ServiceUnavailableException;
+import com.data.handler.patientdata.model.Patient;
+import com.data.handler.patientdata.model.PatientImportFormat;
+import com.data.handler.patientdata.model.PatientImportJob;
+import com.data.handler.patientdata.model.PatientImportRejection;
+import com.data.handler.patientdata.repository.PatientRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+public class PatientImportServiceImplTests {
+
+  private final CountDownLatch writerReleased = new CountDownLatch(1);
+
+  private final PatientRepository patientRepository = mock(PatientRepository.class);
+
+  private PatientImportServiceImpl patientImportService;
+
+  @BeforeEach
+  public void setup() {
+    TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    willAnswer(invocation -> {
+      writerReleased.await();
+      invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+      return null;
+    }).given(transactionTemplate).executeWithoutResult(any());
+    patientImportService = new PatientImportServiceImpl(patientRepository, transactionTemplate,
+        mock(NewPatientValidator.class), new ObjectMapper(), mock(ApplicationEventPublisher.class));
+    ReflectionTestUtils.setField(patientImportService, "maxBytes", 1024L);
+    ReflectionTestUtils.setField(patientImportService, "chunkSize", 10);
+    ReflectionTestUtils.setField(patientImportService, "queueCapacity", 10);
+    ReflectionTestUtils.setField(patientImportService, "maxReportedRejections", 10);
+    ReflectionTestUtils.setField(patientImportService, "concurrentJobs", 1);
+    ReflectionTestUtils.setField(patientImportService, "queuedJobs", 1);
+    patientImportService.startJobExecutor();
+  }
+
+  @AfterEach
+  public void tearDown() {
+    writerReleased.countDown();
+    patientImportService.stopJobExecutor();
+  }
+
+  @Test
+  public void givenRunningAndQueuedImports_whenStartImport_thenRefuseWithoutSpoolingTheFile() throws IOException {
+    // given - precondition or setup
+    PatientImportJob running = patientImportService.startImport(csv(), PatientImportFormat.CSV);
+    PatientImportJob queued = patientImportService.startImport(csv(), PatientImportFormat.CSV);
+    long spooledFiles = countSpooledFiles();
+
+    // when -  action or the behaviour that we are going test
+    InputStream refusedContent = csv();
+
+    // then - verify the output
+    assertThatThrownBy(() -> patientImportService.startImport(refusedContent, PatientImportFormat.CSV))
+        .isInstanceOf(ServiceUnavailableException.class);
+    assertThat(refusedContent.available()).isPositive();
+    assertThat(countSpooledFiles()).isEqualTo(spooledFiles);
+    assertThat(patientImportService.findImportJob(running.getId())).isPresent();
+    assertThat(patientImportService.findImportJob(queued.getId())).isPresent();
+  }
+
+  @Test
+  public void givenUploadOverMaxBytes_whenStartImport_thenRefuseAndDeleteThePartialFile() throws IOException {
+    // given - precondition or setup
+    ReflectionTestUtils.setField(patientImportService, "maxBytes", 16L);
+    long spooledFiles = countSpooledFiles();
+
+    // when -  action or the behaviour that we are going test
+    InputStream content = csv();
+
+    // then - verify the output
+    assertThatThrownBy(() -> patientImportService.startImport(content, PatientImportFormat.CSV))
+        .isInstanceOf(PayloadTooLargeException.class);
+    assertThat(countSpooledFiles()).isEqualTo(spooledFiles);
+  }
+
+  @Test
+  public void givenChunkWithRowRefusedByDatabase_whenImport_thenRejectOnlyThatRow() {
+    // given - precondition or setup
+    writerReleased.countDown();
+    given(patientRepository.saveAll(any())).willAnswer(invocation -> {
+      List<Patient> patients = invocation.getArgument(0);
+      if (patients.stream().anyMatch(patient -> patient.getLastName().equals("Broken"))) {
+        throw new DataIntegrityViolationException("value too long for column last_name");
+      }
+      return patients;
+    });
+    InputStream content = new ByteArrayInputStream(("firstName,lastName,gender,birthDay\n"
+        + "Christina,Schneider,FEMALE,2002-06-18\n"
+        + "Julian,Broken,FEMALE,2002-06-18\n"
+        + "Palki,Sharma,FEMALE,2002-06-18\n").getBytes(StandardCharsets.UTF_8));
+
+    // when -  action or the behaviour that we are going test
+    PatientImportJob job = patientImportService.startImport(content, PatientImportFormat.CSV);
+
+    // then - verify the output
+    Awaitility.await().atMost(10, TimeUnit.SECONDS).until(() -> job.getStatus() != PatientImportJob.Status.RUNNING);
+    assertThat(job.getStatus()).isEqualTo(PatientImportJob.Status.COMPLETED);
+    assertThat(job.getImported()).hasValue(2);
+    assertThat(job.getRejected()).hasValue(1);
+    assertThat(job.getRejections()).extracting(PatientImportRejection::getLine).containsExactly(3L);
+  }
+
+  private static InputStream csv() {
+    return new ByteArrayInputStream("firstName,lastName,gender,birthDay\nChristina,Schneider,FEMALE,2002-06-18\n"
+        .getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static long countSpooledFiles() throws IOException {
+    try (Stream<Path> files = Files.list(Paths.get(System.getProperty("java.io.tmpdir")))) {
+      return files.filter(file -> file.getFileName().toString().startsWith("patient-import-")).count();
+    }
+  }
+}
@@ -1,26 +1,101 @@
 package com.data.handler.patientdata.service;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.verify;
 
+import com.data.handler.patientdata.Gender;
+import com.data.handler.patientdata.cohort.PatientCohortSnapshots;
+import com.data.handler.patientdata.model.Patient;
+import com.data.handler.patientdata.repository.PatientRepository;
+import com.data.handler.patientdata.util.PatientUtil;
+import com.jayway.jsonpath.JsonPath;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import javax.persistence.EntityManagerFactory;
 import org.awaitility.Awaitility;
 import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
 import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.test.context.TestPropertySource;
 
 @SpringBootTest
-@TestPropertySource(properties = {"app.config.schedule.time=*/10 * * * * *"})
+@TestPropertySource(properties = {"app.config.schedule.time=*/10 * * * * *", "patient.records.purge.chunk.size=2"})
 public class PurgeProcessTests {
 
   @SpyBean
   private PurgeProcess purgeProcess;
 
+  @Autowired
+  private PatientRepository patientRepository;
+
+  @Autowired
+  private CacheManager cacheManager;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @Autowired
+  private PatientCohortSnapshots patientCohortSnapshots;
+
   @Test
   public void deleteOlderPatientRecordsTest(){
 
     Awaitility.await().atMost(15, TimeUnit.SECONDS).untilAsserted(() ->
         verify(purgeProcess, Mockito.atLeastOnce()).deleteOlderPatientRecords());
   }
+
+  @Test
+  public void givenOldPatientRecords_whenPurgeInChunks_thenDeleteOnlyOldRecords() {
+    // given - precondition or setup
+    patientRepository.deleteAll();
+    List<Patient> oldPatients;
+    try (MockedStatic<PatientUtil> mockedStatic = mockStatic(PatientUtil.class)) {
+      mockedStatic.when(PatientUtil::getCurrentDate).thenReturn(LocalDate.now().minusYears(2));
+      oldPatients = patientRepository.saveAll(IntStream.range(0, 5)
+          .mapToObj(i -> Patient.builder()
+              .firstName("Julian").lastName("Adamson" + i).gender(Gender.FEMALE).birthDay(LocalDate.now().minusYears(25))
+              .build())
+          .collect(Collectors.toList()));
+    }
+    Patient recentPatient = patientRepository.save(Patient.builder()
+        .firstName("Sameera").lastName("Key").gender(Gender.FEMALE).birthDay(LocalDate.now().minusYears(20))
+        .build());
+    Cache patientsCache = cacheManager.getCache(PatientService.PATIENTS_CACHE);
+    patientsCache.put(oldPatients.get(0).getId(), oldPatients.get(0));
+    patientCohortSnapshots.rebuild();
+    assertThat(patientRepository.findAllViewsByFirstNameAndLastNameOrderByLastNameAsc("Julian", "Adamson0").get()).hasSize(1);
+    assertThat(entityManagerFactory.getCache().contains(Patient.class, oldPatients.get(1).getId())).isTrue();
+
+    // when -  action or the behaviour that we are going test
+    purgeProcess.purgePatientRecordsCreatedBefore(LocalDate.now().minusYears(1));
+
+    // then - verify the output
+    List<Patient> remainingPatients = patientRepository.findAll();
+    assertThat(remainingPatients).extracting(Patient::getId).containsExactly(recentPatient.getId());
+    assertThat(patientsCache.get(oldPatients.get(0).getId())).isNull();
+    // the cohort follows the deleted events of the chunks, it is not rebuilt after the purge
+    List<String> femaleLastNames = JsonPath.read(
+        new String(patientCohortSnapshots.getSerializedCohort(Gender.FEMALE).get(), StandardCharsets.UTF_8), "$[*].lastName");
+    assertThat(femaleLastNames).containsExactly("Key");
+    assertThat(entityManagerFactory.getCache().contains(Patient.class, oldPatients.get(1).getId())).isFalse();
+    assertThat(patientRepository.findAllViewsByFirstNameAndLastNameOrderByLastNameAsc("Julian", "Adamson0").get()).isEmpty();
+    assertThat(meterRegistry.find("hibernate.cache.query.requests").tag("result", "hit").functionCounter()).isNotNull();
+    assertThat(meterRegistry.find("hibernate.second.level.cache.requests").tag("region", "patient").functionCounters()).isNotEmpty();
+    assertThat(meterRegistry.get(PurgeProcess.PURGE_TIMER).timer().count()).isPositive();
+    assertThat(meterRegistry.get(PurgeProcess.PURGED_RECORDS_COUNTER).counter().count()).isGreaterThanOrEqualTo(5);
+  }
 }